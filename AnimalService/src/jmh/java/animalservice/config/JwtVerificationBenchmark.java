@@ -0,0 +1,92 @@
+package animalservice.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer token handling in {@link JwtAuthenticationFilter}, four request
+ * threads at once: the former three parses per request (each building its
+ * key and parser), one verification with the shared parser, and the
+ * verified-token cache. {@code users} is the number of distinct tokens in
+ * circulation; every one of them fits the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "YmVuY2htYXJrLW9ubHktc2VjcmV0LWJlbmNobWFyay1vbmx5LXNlY3JldA==";
+
+    @Param({"1", "1000"})
+    public int users;
+
+    private String[] tokens;
+    private JwtUtil uncached;
+    private JwtUtil cached;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String token(String[] tokens) {
+            String t = tokens[next];
+            next = next + 1 == tokens.length ? 0 : next + 1;
+            return t;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Date expiration = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        tokens = new String[users];
+        for (int i = 0; i < users; i++) {
+            tokens[i] = Jwts.builder()
+                    .setSubject("keeper" + i)
+                    .claim("roles", List.of("EMPLOYEE"))
+                    .setIssuedAt(new Date())
+                    .setExpiration(expiration)
+                    .signWith(key)
+                    .compact();
+        }
+        uncached = new JwtUtil(SECRET, 0);
+        cached = new JwtUtil(SECRET, 10_000);
+    }
+
+    /** What the filter used to do: username, roles and expiry, each a full parse with a fresh key */
+    @Benchmark
+    public void perClaimParsing(Cursor cursor, Blackhole bh) {
+        String token = cursor.token(tokens);
+        bh.consume(legacyClaims(token).getSubject());
+        bh.consume(legacyClaims(token).get("roles"));
+        bh.consume(legacyClaims(token).getExpiration().before(new Date()));
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyOnce(Cursor cursor) {
+        return uncached.verify(cursor.token(tokens));
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyCached(Cursor cursor) {
+        return cached.verify(cursor.token(tokens));
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,87 @@
+package animalservice.domain.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one AnimalDTO body on the wire in each negotiated format: a
+ * single species, as ExemplarService fetches it, and a 100-row listing.
+ * Mappers are built the way WireFormatConfig builds them. The encoded size
+ * of every (format, shape) pair is printed once per trial, since JMH only
+ * reports times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WireFormatBenchmark {
+
+    private static final String[] PARTS = {"grey", "red", "arctic", "african", "giant", "wolf", "fox", "eagle", "owl", "python"};
+    private static final String[] CATEGORIES = {"Mammal", "Bird", "Reptile", "Fish", "Insect", "Amphibian"};
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"one", "list100"})
+    public String shape;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        Random random = new Random(42);
+        List<AnimalDTO> rows = new ArrayList<>();
+        for (long id = 1; id <= (shape.equals("one") ? 1 : 100); id++) {
+            rows.add(AnimalDTO.builder()
+                    .id(id)
+                    .name(PARTS[random.nextInt(5)] + " " + PARTS[5 + random.nextInt(5)] + " " + id)
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .dietType(random.nextBoolean() ? "carnivor" : "erbivor")
+                    .habitat("Forest")
+                    .averageWeight(Math.round(random.nextDouble() * 5000) / 10.0)
+                    .averageAge(Math.round(random.nextDouble() * 400) / 10.0)
+                    .build());
+        }
+        if (shape.equals("one")) {
+            value = rows.get(0);
+            writer = mapper.writerFor(AnimalDTO.class);
+            reader = mapper.readerFor(AnimalDTO.class);
+        } else {
+            value = rows;
+            writer = mapper.writerFor(new TypeReference<List<AnimalDTO>>() { });
+            reader = mapper.readerFor(new TypeReference<List<AnimalDTO>>() { });
+        }
+        encoded = writer.writeValueAsBytes(value);
+        System.out.printf("%n[wire] %s %s: %d bytes%n", format, shape, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,70 @@
+package animalservice.service;
+
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.domain.dto.PageDTO;
+import animalservice.repository.AnimalRepository;
+import animalservice.service.catalog.AnimalCatalog;
+import animalservice.service.stats.AnimalStatsService;
+import animalservice.service.stats.StatsAccumulator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorted listings. {@code listAll} serves name order from the snapshot and
+ * every other order from the ordering the snapshot keeps for it after the
+ * first call; {@code sortAll} is the full comparator sort that first call
+ * (or a sort beyond the kept ones) pays. The paged filter and search sort
+ * only their matches, on every call. The parsing alone is in
+ * {@link SortParseBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AnimalListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    /** The endpoint's default, name order, a numeric descending order and one led by a descending string */
+    @Param({"species,asc;dietType,asc", "name,asc", "category,asc;averageWeight,desc", "habitat,desc;averageAge,asc"})
+    public String sort;
+
+    private AnimalService service;
+    private AnimalCatalog catalog;
+    private Sort parsed;
+
+    @Setup
+    public void setUp() {
+        AnimalRepository repository = SyntheticAnimals.repository(SyntheticAnimals.entities(rows));
+        catalog = new AnimalCatalog(repository, SyntheticAnimals.transactionManager(), true);
+        catalog.rebuild();
+        parsed = AnimalService.parseSort(sort);
+        service = new AnimalService(repository, catalog,
+                new AnimalStatsService(repository, new StatsAccumulator()), null, null, null, null);
+    }
+
+    @Benchmark
+    public List<AnimalDTO> listAll() {
+        return service.listAll(sort);
+    }
+
+    @Benchmark
+    public List<AnimalDTO> sortAll() {
+        return AnimalCatalog.sorted(catalog.list(Sort.by("name")), parsed);
+    }
+
+    /** A sixth of the rows are mammals, a third of those carnivores */
+    @Benchmark
+    public PageDTO<AnimalDTO> filterPage() {
+        return service.filterPage("mammal", null, "carnivor", null, sort, 2, 20);
+    }
+
+    /** A tenth of the rows carry the noun */
+    @Benchmark
+    public PageDTO<AnimalDTO> searchPage() {
+        return service.searchPage("eagle", sort, 2, 20);
+    }
+}
@@ -0,0 +1,78 @@
+package animalservice.service;
+
+import animalservice.domain.Animal;
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.repository.AnimalRepository;
+import animalservice.service.catalog.AnimalCatalog;
+import animalservice.service.exporter.WordExporter;
+import animalservice.service.stats.AnimalStatsService;
+import animalservice.service.stats.StatsAccumulator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The visitor and manager read paths of {@link AnimalService} over the
+ * in-memory catalog: filter, search, the stats snapshot and its full
+ * rebuild, the stats report, and the entity to DTO mapping every
+ * database read goes through. Listing and sorting are in
+ * {@link AnimalListBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AnimalReadBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private List<Animal> entities;
+    private AnimalService service;
+    private AnimalStatsService statsService;
+
+    @Setup
+    public void setUp() {
+        entities = SyntheticAnimals.entities(rows);
+        AnimalRepository repository = SyntheticAnimals.repository(entities);
+        AnimalCatalog catalog = new AnimalCatalog(repository, SyntheticAnimals.transactionManager(), true);
+        catalog.rebuild();
+        statsService = new AnimalStatsService(repository, new StatsAccumulator());
+        statsService.reconcile();
+        // the read paths touch neither exports nor the cursor
+        service = new AnimalService(repository, catalog, statsService, null, null, null, null);
+    }
+
+    /** Category and diet: two hash indexes, then a scan of the smaller one */
+    @Benchmark
+    public List<AnimalDTO> filter() {
+        return service.filter("mammal", null, "carnivor", null);
+    }
+
+    @Benchmark
+    public List<AnimalDTO> search() {
+        return service.search("golden ea");
+    }
+
+    @Benchmark
+    public Object computeStats() {
+        return service.computeStats();
+    }
+
+    /** What the scheduled reconcile and a cold start pay */
+    @Benchmark
+    public void rebuildStats() {
+        statsService.reconcile();
+    }
+
+    @Benchmark
+    public byte[] exportStatsWord() {
+        return WordExporter.export(service.computeStats());
+    }
+
+    @Benchmark
+    public void fromEntity(Blackhole bh) {
+        for (Animal a : entities) bh.consume(AnimalDTO.fromEntity(a));
+    }
+}
@@ -0,0 +1,21 @@
+package animalservice.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/** The {@code field,dir;field,dir} sort parameter to a {@link Sort}, paid on every listing request. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SortParseBenchmark {
+
+    @Param({"species,asc;dietType,asc", "name,asc", "category,asc;averageWeight,desc"})
+    public String sort;
+
+    @Benchmark
+    public Sort parseSort() {
+        return AnimalService.parseSort(sort);
+    }
+}
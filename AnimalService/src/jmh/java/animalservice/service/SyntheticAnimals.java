@@ -0,0 +1,93 @@
+package animalservice.service;
+
+import animalservice.domain.Animal;
+import animalservice.repository.AnimalRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic species rows for the benchmarks, and an in-memory
+ * {@link AnimalRepository} that serves them to the catalog and the stats
+ * rebuild, so a million rows need no database.
+ */
+public final class SyntheticAnimals {
+
+    private static final String[] ADJECTIVES = {
+            "grey", "red", "arctic", "african", "giant", "lesser", "spotted", "golden"
+    };
+    private static final String[] NOUNS = {
+            "wolf", "fox", "eagle", "owl", "python", "tortoise", "salmon", "beetle", "lion", "heron"
+    };
+    private static final String[] CATEGORIES = {"Mammal", "Bird", "Reptile", "Fish", "Insect", "Amphibian"};
+    private static final String[] DIETS = {"carnivor", "erbivor", "omnivor"};
+    private static final String[] HABITATS = {
+            "Forest", "Savanna", "Desert", "Tundra", "Ocean", "River", "Mountain", "Wetland"
+    };
+
+    private SyntheticAnimals() {
+    }
+
+    /** {@code rows} animals with ids 1..rows; the same rows for the same count */
+    public static List<Animal> entities(int rows) {
+        Random random = new Random(42);
+        List<Animal> animals = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            animals.add(Animal.builder()
+                    .id(id)
+                    .name(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                            + NOUNS[random.nextInt(NOUNS.length)] + " " + id)
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .dietType(DIETS[random.nextInt(DIETS.length)])
+                    .habitat(HABITATS[random.nextInt(HABITATS.length)])
+                    .averageWeight(Math.round(random.nextDouble() * 500_000) / 100.0)
+                    .averageAge(Math.round(random.nextDouble() * 8_000) / 100.0)
+                    .build());
+        }
+        return animals;
+    }
+
+    /** Answers {@code findAll()} and {@code findStatsRows()} from {@code rows}; anything else throws. */
+    public static AnimalRepository repository(List<Animal> rows) {
+        List<AnimalRepository.StatsRow> statsRows = rows.stream().map(SyntheticAnimals::statsRow).toList();
+        return (AnimalRepository) Proxy.newProxyInstance(AnimalRepository.class.getClassLoader(),
+                new Class<?>[]{AnimalRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> {
+                        if (args != null && args.length > 0) throw unsupported(method.getName());
+                        yield rows;
+                    }
+                    case "findStatsRows" -> statsRows;
+                    case "toString" -> "SyntheticAnimals(" + rows.size() + ")";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw unsupported(method.getName());
+                });
+    }
+
+    /** For components that want one; the benchmarks never write, so starting a transaction throws. */
+    public static PlatformTransactionManager transactionManager() {
+        return (PlatformTransactionManager) Proxy.newProxyInstance(PlatformTransactionManager.class.getClassLoader(),
+                new Class<?>[]{PlatformTransactionManager.class},
+                (proxy, method, args) -> {
+                    throw unsupported(method.getName());
+                });
+    }
+
+    private static AnimalRepository.StatsRow statsRow(Animal a) {
+        return new AnimalRepository.StatsRow() {
+            public Long getId() { return a.getId(); }
+            public String getCategory() { return a.getCategory(); }
+            public String getDietType() { return a.getDietType(); }
+            public Double getAverageWeight() { return a.getAverageWeight(); }
+            public Double getAverageAge() { return a.getAverageAge(); }
+        };
+    }
+
+    private static UnsupportedOperationException unsupported(String method) {
+        return new UnsupportedOperationException(method + " is not available to benchmarks");
+    }
+}
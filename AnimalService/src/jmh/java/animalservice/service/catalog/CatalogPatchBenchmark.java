@@ -0,0 +1,52 @@
+package animalservice.service.catalog;
+
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.service.SyntheticAnimals;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one species write on the catalog: a copy-on-write rebuild of the
+ * snapshot with the changed row. The row gets a new name, so it moves in
+ * the name order, and a new category and habitat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogPatchBenchmark {
+
+    private static final String[] NAMES = {"aardvark", "kiwi", "marbled newt", "zebu"};
+    private static final String[] CATEGORIES = {"Mammal", "Bird", "Amphibian"};
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private CatalogSnapshot snapshot;
+    private final Random random = new Random(42);
+    private long version;
+
+    @Setup
+    public void setUp() {
+        List<AnimalDTO> animals = SyntheticAnimals.entities(rows).stream().map(AnimalDTO::fromEntity).toList();
+        snapshot = new CatalogSnapshot(animals, 1);
+    }
+
+    @Benchmark
+    public CatalogSnapshot patch() {
+        long id = 1 + random.nextInt(rows);
+        AnimalDTO renamed = AnimalDTO.builder()
+                .id(id)
+                .name(NAMES[random.nextInt(NAMES.length)] + " " + id)
+                .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                .dietType("omnivor")
+                .habitat("Forest")
+                .averageWeight(10.0)
+                .averageAge(5.0)
+                .build();
+        snapshot = snapshot.withUpsert(renamed, ++version);
+        return snapshot;
+    }
+}
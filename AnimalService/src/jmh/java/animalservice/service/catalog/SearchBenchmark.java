@@ -0,0 +1,71 @@
+package animalservice.service.catalog;
+
+import animalservice.domain.dto.AnimalDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Trigram index lookup against the full-table scan search used before,
+ * which lower-cased name and category of every row on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    private static final String[] PARTS = {
+            "grey", "red", "arctic", "african", "giant", "lesser", "spotted", "golden",
+            "wolf", "fox", "eagle", "owl", "python", "tortoise", "salmon", "beetle", "lion", "heron"
+    };
+    private static final String[] CATEGORIES = {"Mammal", "Bird", "Reptile", "Fish", "Insect", "Amphibian"};
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"wolf", "golden eagle", "rep", "zzz"})
+    public String query;
+
+    private List<AnimalDTO> animals;
+    private CatalogSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        animals = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            animals.add(AnimalDTO.builder()
+                    .id(id)
+                    .name(PARTS[random.nextInt(8)] + " " + PARTS[8 + random.nextInt(10)] + " " + id)
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .dietType("Omnivore")
+                    .habitat("Forest")
+                    .averageWeight(10.0)
+                    .averageAge(5.0)
+                    .build());
+        }
+        snapshot = new CatalogSnapshot(animals, 1);
+    }
+
+    @Benchmark
+    public void scan(Blackhole bh) {
+        String term = query.toLowerCase();
+        bh.consume(animals.stream()
+                .filter(a -> a.getCategory().toLowerCase().contains(term)
+                        || a.getName().toLowerCase().contains(term))
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public void trigramIndex(Blackhole bh) {
+        int[] positions = snapshot.search(query);
+        List<AnimalDTO> out = new ArrayList<>(positions.length);
+        for (int pos : positions) out.add(snapshot.byName.get(pos));
+        bh.consume(out);
+    }
+}
@@ -0,0 +1,59 @@
+package animalservice.service.exporter;
+
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.service.SyntheticAnimals;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each species exporter writing {@code rows} rows into a sink that only
+ * counts bytes, so the score is serialization alone: no query, no buffer
+ * growth, no socket. The bundle is left out; it runs four of these.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExporterBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"csv", "json", "ndjson", "xml", "doc", "parquet"})
+    public String format;
+
+    private List<AnimalDTO> animals;
+    private Exporter exporter;
+
+    @Setup
+    public void setUp() {
+        animals = SyntheticAnimals.entities(rows).stream().map(AnimalDTO::fromEntity).toList();
+        JsonExporter json = new JsonExporter();
+        ExporterRegistry registry = new ExporterRegistry(List.of(new CsvExporter(), json, new NdjsonExporter(json),
+                new XmlExporter(), new DocxExporter(), new ParquetExporter()));
+        exporter = registry.byName(format).orElseThrow();
+    }
+
+    @Benchmark
+    public long export() {
+        CountingSink out = new CountingSink();
+        exporter.export(animals.stream(), out);
+        return out.bytes;
+    }
+
+    private static final class CountingSink extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package animalservice.service.importer;
+
+import animalservice.AnimalServiceApplication;
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.domain.dto.ImportReportDTO;
+import animalservice.repository.AnimalRepository;
+import animalservice.service.AnimalService;
+import animalservice.service.catalog.AnimalCatalog;
+import animalservice.service.exporter.CsvExporter;
+import animalservice.service.exporter.Exporter;
+import animalservice.service.exporter.ExporterRegistry;
+import animalservice.service.exporter.JsonExporter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading {@code rows} species through the bulk import against one
+ * {@code saveAnimal} call per species, the path a client looping over
+ * POST /api/animal takes (minus HTTP). Runs the real application context on
+ * an in-memory H2 database, so absolute numbers are lower than on MySQL;
+ * the ratio is what matters. Each invocation starts from an empty table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ImportBenchmark {
+
+    private static final String[] PARTS = {"grey", "red", "arctic", "giant", "golden", "wolf", "fox", "eagle", "owl"};
+    private static final String[] CATEGORIES = {"Mammal", "Bird", "Reptile", "Fish"};
+
+    @Param({"1000", "5000"})
+    public int rows;
+
+    @Param({"perRequest", "bulkCsv", "bulkJson"})
+    public String path;
+
+    private ConfigurableApplicationContext context;
+    private AnimalService animalService;
+    private AnimalImportService importService;
+    private AnimalRepository repository;
+    private AnimalCatalog catalog;
+    private Exporter csvExporter;
+    private Exporter jsonExporter;
+
+    private List<AnimalDTO> animals;
+    private byte[] csv;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(AnimalServiceApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:import;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "jwt.secret=YmVuY2htYXJrLW9ubHktc2VjcmV0LWJlbmNobWFyay1vbmx5LXNlY3JldA==")
+                .run();
+        animalService = context.getBean(AnimalService.class);
+        importService = context.getBean(AnimalImportService.class);
+        repository = context.getBean(AnimalRepository.class);
+        catalog = context.getBean(AnimalCatalog.class);
+        csvExporter = context.getBean(ExporterRegistry.class).resolve("csv");
+        jsonExporter = context.getBean(ExporterRegistry.class).resolve("json");
+
+        Random random = new Random(42);
+        animals = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            animals.add(AnimalDTO.builder()
+                    .name(PARTS[random.nextInt(PARTS.length)] + " " + PARTS[random.nextInt(PARTS.length)] + " " + i)
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .dietType(random.nextBoolean() ? "carnivor" : "erbivor")
+                    .habitat("Forest")
+                    .averageWeight(random.nextDouble() * 500)
+                    .averageAge(random.nextDouble() * 80)
+                    .build());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        context.getBean(CsvExporter.class).export(animals.stream(), out);
+        csv = out.toByteArray();
+        out = new ByteArrayOutputStream();
+        context.getBean(JsonExporter.class).export(animals.stream(), out);
+        json = out.toByteArray();
+    }
+
+    @Setup(Level.Invocation)
+    public void empty() {
+        repository.deleteAllInBatch();
+        catalog.refresh();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public long load() {
+        switch (path) {
+            case "bulkCsv":
+                return check(importService.importAll(csvExporter, new ByteArrayInputStream(csv)));
+            case "bulkJson":
+                return check(importService.importAll(jsonExporter, new ByteArrayInputStream(json)));
+            default:
+                long n = 0;
+                for (AnimalDTO a : animals) {
+                    animalService.saveAnimal(AnimalDTO.builder()
+                            .name(a.getName()).category(a.getCategory()).dietType(a.getDietType())
+                            .habitat(a.getHabitat()).averageWeight(a.getAverageWeight()).averageAge(a.getAverageAge())
+                            .build());
+                    n++;
+                }
+                return n;
+        }
+    }
+
+    private long check(ImportReportDTO report) {
+        if (report.getImported() != rows) throw new IllegalStateException("Imported " + report);
+        return report.getImported();
+    }
+}
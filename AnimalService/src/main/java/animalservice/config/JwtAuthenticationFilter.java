@@ -39,25 +39,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String token = authHeader.substring(7);
-        String username = null;
-        List<String> roles = null;
 
-        try {
-            username = jwtUtil.extractUsername(token);
-            roles = jwtUtil.extractRoles(token); // Get roles from the token
-        } catch (Exception e) {
-            logger.warn("JWT Token processing failed for request to " + request.getRequestURI() + ": " + e.getMessage());
-        }
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtUtil.VerifiedToken verified = null;
+            try {
+                // one signature check per token, not per claim; repeats come from the cache
+                verified = jwtUtil.verify(token);
+            } catch (Exception e) {
+                logger.warn("JWT Token processing failed for request to " + request.getRequestURI() + ": " + e.getMessage());
+            }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(token)) {
-                List<GrantedAuthority> authorities = roles.stream()
+            if (verified != null && verified.username() != null) {
+                List<GrantedAuthority> authorities = verified.roles().stream()
                         .map(role -> new SimpleGrantedAuthority("ROLE_" + role)) // ✅ Add ROLE_ prefix
                         .collect(Collectors.toList());
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                username,
+                                verified.username(),
                                 null,
                                 authorities
                         );
@@ -1,65 +1,58 @@
 package animalservice.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
-import java.util.Date;
 import java.util.List;
-import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    // Această cheie trebuie să fie aceeași cu cea folosită de microserviciul de Auth
-    @Value("${jwt.secret}")
-    private String secretKey;
-
-    @Value("${jwt.expirationTime}")
-    private long expirationTime; // Durata de valabilitate a token-ului în milisecunde
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /** What the filter needs from a token whose signature and expiry have been checked */
+    public record VerifiedToken(String username, List<String> roles, long expiresAt) {
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+    // cheia și parserul se construiesc o singură dată; parserul e imutabil, deci thread-safe
+    private final JwtParser parser;
+    private final VerifiedTokenCache cache;
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public JwtUtil(
+            // Această cheie trebuie să fie aceeași cu cea folosită de microserviciul de Auth
+            @Value("${jwt.secret}") String secretKey,
+            @Value("${jwt.cache.max-entries:10000}") int cacheEntries) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .build();
+        this.cache = new VerifiedTokenCache(cacheEntries);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Checks signature and expiry once and returns what the token says; a
+     * token seen before is answered from the cache until it expires.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public VerifiedToken verify(String token) {
+        return cache.get(token, this::parse);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private VerifiedToken parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        // fără expirare nu avem până când să-l ținem minte, și nici nu l-am accepta
+        if (claims.getExpiration() == null) throw new JwtException("Token has no expiration");
+        return new VerifiedToken(claims.getSubject(), roles(claims), claims.getExpiration().getTime());
     }
 
-    public Boolean validateToken(String token) {
-        return !isTokenExpired(token);
-    }
-
-    // NOU: Extragerea rolurilor
-    public List<String> extractRoles(String token) {
-        Claims claims = extractAllClaims(token);
+    @SuppressWarnings("unchecked")
+    private static List<String> roles(Claims claims) {
         // Presupunem că rolurile sunt stocate sub cheia "roles" ca o listă
-        return (List<String>) claims.get("roles");
-    }
-
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        List<String> roles = (List<String>) claims.get("roles");
+        return roles == null ? List.of() : List.copyOf(roles);
     }
-}
\ No newline at end of file
+}
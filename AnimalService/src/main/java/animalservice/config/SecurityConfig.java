@@ -45,6 +45,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST,   "/api/animal/**").permitAll()
                         .requestMatchers(HttpMethod.PUT,    "/api/animal/**").permitAll()
 
+                        // scraped by Prometheus and probed by the orchestrator, neither carries a JWT
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
+
                         .anyRequest().authenticated()
                 )
 
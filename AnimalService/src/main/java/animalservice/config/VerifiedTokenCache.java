@@ -0,0 +1,76 @@
+package animalservice.config;
+
+import animalservice.config.JwtUtil.VerifiedToken;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Tokens that passed verification, so a client sending the same bearer
+ * token on every request pays for the signature check once. Entries are
+ * keyed by a SHA-256 digest of the token, never the token itself, and
+ * stop being served the moment the token expires. Lookups take no lock;
+ * when the bound is reached, expired entries are dropped first and then
+ * an eighth of the rest, so a full cache is swept once per many misses,
+ * not on each. Tokens that fail verification are never cached.
+ */
+final class VerifiedTokenCache {
+
+    /** The first 128 bits of the token's SHA-256: enough to never collide by accident or on purpose */
+    private record Digest(long high, long low) {
+    }
+
+    private final int maxEntries;
+    private final Map<Digest, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    /** {@code maxEntries} of 0 turns caching off: every call verifies */
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        if (maxEntries <= 0) return verifier.apply(token);
+
+        Digest key = digest(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = entries.get(key);
+        if (cached != null) {
+            if (now < cached.expiresAt()) return cached;
+            entries.remove(key, cached);
+        }
+        VerifiedToken verified = verifier.apply(token); // throws if invalid, expired included
+        if (entries.size() >= maxEntries) evict(now);
+        entries.put(key, verified);
+        return verified;
+    }
+
+    /** Entries held, expired ones included until a lookup or a sweep drops them */
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(t -> t.expiresAt() <= now);
+        Iterator<Digest> it = entries.keySet().iterator();
+        while (entries.size() > maxEntries - maxEntries / 8 - 1 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static Digest digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer b = ByteBuffer.wrap(hash);
+            return new Digest(b.getLong(), b.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package animalservice.controller;
+
+import animalservice.service.chart.ChartService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/animal/charts")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AnimalChartController {
+
+    private final ChartService chartService;
+
+    public AnimalChartController(ChartService chartService) {
+        this.chartService = chartService;
+    }
+
+    /** Bar or pie chart of species per category|diet|habitat, as png|svg */
+    @GetMapping("/{dimension}")
+    public ResponseEntity<byte[]> chart(
+            @PathVariable String dimension,
+            @RequestParam(defaultValue = "bar") String type,
+            @RequestParam(defaultValue = "png") String format,
+            @RequestParam(defaultValue = "600") int width,
+            @RequestParam(defaultValue = "400") int height) {
+
+        ChartService.Format fmt = parse(ChartService.Format.class, format);
+        byte[] image = chartService.render(
+                parse(ChartService.Dimension.class, dimension),
+                parse(ChartService.Type.class, type),
+                fmt, width, height);
+
+        return ResponseEntity.ok()
+                .contentType(fmt == ChartService.Format.SVG
+                        ? MediaType.valueOf("image/svg+xml")
+                        : MediaType.IMAGE_PNG)
+                .cacheControl(CacheControl.noCache())
+                .body(image);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unsupported " + type.getSimpleName().toLowerCase(Locale.ROOT) + ": " + value);
+        }
+    }
+}
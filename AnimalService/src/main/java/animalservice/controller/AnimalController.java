@@ -1,15 +1,29 @@
 package animalservice.controller;
 
 import animalservice.domain.dto.AnimalDTO;
+import animalservice.domain.dto.CatalogMetricsDTO;
+import animalservice.domain.dto.CursorPageDTO;
+import animalservice.domain.dto.ExtendedStatsDTO;
+import animalservice.domain.dto.ImportReportDTO;
+import animalservice.domain.dto.PageDTO;
 import animalservice.domain.dto.StatsDTO;
+import animalservice.domain.dto.SuggestionDTO;
 import animalservice.service.AnimalService;
+import animalservice.service.ExportCache;
+import animalservice.service.exporter.Exporter;
+import animalservice.service.exporter.ExporterRegistry;
+import animalservice.service.importer.AnimalImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -19,6 +33,10 @@ import java.util.List;
 public class AnimalController {
 
     private final AnimalService animalService;
+    private final ExportCache exportCache;
+    private final ExporterRegistry exporters;
+    private final ExportResponder exportResponder;
+    private final AnimalImportService importService;
 
     // VISITOR
 
@@ -37,6 +55,28 @@ public class AnimalController {
         return ResponseEntity.ok(animalService.listAll(sort));
     }
 
+    /** 1b. Same listing, one page at a time */
+    @GetMapping(params = "page")
+    public ResponseEntity<PageDTO<AnimalDTO>> getAnimalPage(
+            @RequestParam(defaultValue = "species,asc;dietType,asc") String sort,
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(animalService.listPage(sort, page, size));
+    }
+
+    /** 1c. Same listing with keyset paging: start with {@code ?cursor=}, then pass back {@code next} */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<AnimalDTO>> getAnimalsAfter(
+            @RequestParam(defaultValue = "species,asc;dietType,asc") String sort,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(animalService.listAfter(sort, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     /** 2. Filter by category, species, dietType, habitat */
     @GetMapping("/filter")
     public ResponseEntity<List<AnimalDTO>> filter(
@@ -47,12 +87,49 @@ public class AnimalController {
         return ResponseEntity.ok(animalService.filter(category, species, dietType, habitat));
     }
 
+    /** 2b. Paged filter */
+    @GetMapping(value = "/filter", params = "page")
+    public ResponseEntity<PageDTO<AnimalDTO>> filterPage(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String species,
+            @RequestParam(required = false) String dietType,
+            @RequestParam(required = false) String habitat,
+            @RequestParam(defaultValue = "species,asc") String sort,
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(animalService.filterPage(category, species, dietType, habitat, sort, page, size));
+    }
+
     /** 3. Search by category or species */
     @GetMapping("/search")
     public ResponseEntity<List<AnimalDTO>> search(@RequestParam String q) {
         return ResponseEntity.ok(animalService.search(q));
     }
 
+    /** 3b. Paged search */
+    @GetMapping(value = "/search", params = "page")
+    public ResponseEntity<PageDTO<AnimalDTO>> searchPage(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "species,asc") String sort,
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(animalService.searchPage(q, sort, page, size));
+    }
+
+    /** 3c. Autocomplete for the search box: species, categories and habitats starting with the prefix */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(animalService.suggest(prefix, limit));
+    }
+
+    /** 3d. In-memory catalog metrics (size, rebuild time, hit counts) */
+    @GetMapping("/catalog/metrics")
+    public ResponseEntity<CatalogMetricsDTO> catalogMetrics() {
+        return ResponseEntity.ok(animalService.catalogMetrics());
+    }
+
 
     // EMPLOYEE (ANGAJAT)
 
@@ -82,35 +159,57 @@ public class AnimalController {
         return ResponseEntity.noContent().build();
     }
 
-    /** 7. Export species list in csv|json|xml|doc */
+    /**
+     * 7. Export species list in any registered format (csv|json|ndjson|xml|doc|parquet,
+     * or bundle: csv+json+xml+docx in one zip). Without {@code format}, the
+     * Accept header picks it; csv by default.
+     */
     @GetMapping("/export")
     //@PreAuthorize("hasRole('EMPLOYEE')")
-    public ResponseEntity<InputStreamResource> exportAll(
-            @RequestParam(defaultValue = "csv") String format) {
-
-        byte[] data = animalService.exportAll(format);
-        MediaType contentType;
-        String ext;
-        switch (format.toLowerCase()) {
-            case "json": contentType = MediaType.APPLICATION_JSON; ext = "json"; break;
-            case "xml":  contentType = MediaType.APPLICATION_XML;  ext = "xml";  break;
-            case "doc":
-                contentType = MediaType.parseMediaType(
-                        "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
-                ext = "docx"; break;
-            default:
-                contentType = MediaType.parseMediaType("text/csv"); ext = "csv";
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletRequest request) {
+        Exporter exporter = exporters.resolve(format, acceptedTypes(accept));
+        return exportResponder.respond(exporter, format == null, ifNoneMatch, request);
+    }
+
+    private static List<MediaType> acceptedTypes(String accept) {
+        if (accept == null) return List.of();
+        try {
+            return MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return List.of();
         }
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentDisposition(
-                ContentDisposition.attachment().filename("animals." + ext).build()
-        );
+    /**
+     * 7b. Bulk import of new species from a csv|json|ndjson|xml upload in the
+     * export layout; the format comes from {@code format} or the Content-Type.
+     * Answers with a per-row error report.
+     */
+    @PostMapping("/import")
+    //@PreAuthorize("hasRole('EMPLOYEE')")
+    public ResponseEntity<ImportReportDTO> importAll(
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        Exporter fmt = exporters.resolve(format != null ? format : importFormat(contentType));
+        try {
+            return ResponseEntity.ok(importService.importAll(fmt, body));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 
-        return ResponseEntity.ok()
-                .headers(headers)
-                .contentType(contentType)
-                .body(new InputStreamResource(new ByteArrayInputStream(data)));
+    private static String importFormat(String contentType) {
+        if (contentType == null) return "csv";
+        String type = contentType.toLowerCase();
+        if (type.contains("ndjson")) return "ndjson";
+        if (type.contains("json")) return "json";
+        if (type.contains("xml")) return "xml";
+        return "csv";
     }
 
 
@@ -123,13 +222,28 @@ public class AnimalController {
         return ResponseEntity.ok(animalService.computeStats());
     }
 
+    /** 8b. Min/max/mean/stddev, quantiles and histograms of weight and age, per category and habitat */
+    @GetMapping("/stats/extended")
+    //@PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<ExtendedStatsDTO> getExtendedStats(@RequestParam(defaultValue = "10") int bins) {
+        return ResponseEntity.ok(animalService.computeExtendedStats(bins));
+    }
+
     /** 9. Export statistics to Word */
     @GetMapping("/stats/export")
     //@PreAuthorize("hasRole('MANAGER')")
-    public ResponseEntity<InputStreamResource> exportStats() {
-        byte[] doc = animalService.exportStatsWord();
+    public ResponseEntity<InputStreamResource> exportStats(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long version = exportCache.version();
+        String etag = exportCache.etag("stats-docx", version);
+        if (exportCache.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        byte[] doc = exportCache.getOrCompute("stats-docx", version, animalService::exportStatsWord);
 
         HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setCacheControl(CacheControl.noCache());
         headers.setContentDisposition(
                 ContentDisposition.attachment().filename("animal-stats.docx").build()
         );
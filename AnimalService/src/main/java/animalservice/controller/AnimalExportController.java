@@ -1,46 +1,42 @@
 package animalservice.controller;
 
 import animalservice.service.AnimalExporterService;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import animalservice.service.exporter.ExporterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.io.IOException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/animal/export")
 public class AnimalExportController {
 
     private final AnimalExporterService svc;
-    public AnimalExportController(AnimalExporterService svc) {
-        this.svc = svc;
-    }
-
-    @GetMapping(value = "/csv", produces = "text/csv")
-    public ResponseEntity<byte[]> csv() throws IOException {
-        byte[] data = svc.exportCsv();
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=animals.csv")
-                .body(data);
-    }
+    private final ExporterRegistry exporters;
+    private final ExportResponder exportResponder;
 
-    @GetMapping(value = "/json", produces = "application/json")
-    public ResponseEntity<byte[]> json() throws JsonProcessingException {
-        byte[] data = svc.exportJson();
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=animals.json")
-                .body(data);
+    public AnimalExportController(AnimalExporterService svc,
+                                  ExporterRegistry exporters,
+                                  ExportResponder exportResponder) {
+        this.svc = svc;
+        this.exporters = exporters;
+        this.exportResponder = exportResponder;
     }
 
-    @GetMapping(value = "/xml", produces = "application/xml")
-    public ResponseEntity<byte[]> xml() throws JsonProcessingException {
-        byte[] data = svc.exportXml();
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=animals.xml")
-                .body(data);
+    /** Same export as {@code /api/animal/export?format=…}, format in the path; 404 for unknown ones */
+    @GetMapping("/{format}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String format,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request) {
+        return exporters.byName(format)
+                .map(exporter -> exportResponder.respond(exporter, false, ifNoneMatch, request))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping(value = "/docx", produces = "application/vnd.openxmlformats-officedocument.wordprocessingml.document")
@@ -0,0 +1,91 @@
+package animalservice.controller;
+
+import animalservice.domain.Animal;
+import animalservice.domain.dto.ExportJobDTO;
+import animalservice.repository.AnimalSpecifications;
+import animalservice.service.ExportJobService;
+import animalservice.service.exporter.ExporterRegistry;
+import org.springframework.core.io.Resource;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/animal/export/jobs")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AnimalExportJobController {
+
+    private final ExportJobService jobs;
+    private final ExporterRegistry exporters;
+
+    public AnimalExportJobController(ExportJobService jobs, ExporterRegistry exporters) {
+        this.jobs = jobs;
+        this.exporters = exporters;
+    }
+
+    /** Queue an export in any registered format (csv|json|ndjson|xml|doc|parquet|bundle), optionally filtered like /filter and /search */
+    @PostMapping
+    public ResponseEntity<ExportJobDTO> submit(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String species,
+            @RequestParam(required = false) String dietType,
+            @RequestParam(required = false) String habitat,
+            @RequestParam(required = false) String q) {
+
+        Specification<Animal> filter = null;
+        if (category != null || species != null || dietType != null || habitat != null) {
+            filter = AnimalSpecifications.matching(category, species, dietType, habitat);
+        }
+        if (q != null) {
+            filter = filter == null ? AnimalSpecifications.search(q) : filter.and(AnimalSpecifications.search(q));
+        }
+
+        try {
+            ExportJobDTO job = jobs.submit(exporters.resolve(format), filter);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/animal/export/jobs/" + job.getId()))
+                    .body(job);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Export queue is full, retry later");
+        }
+    }
+
+    /** State and progress of a job */
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJobDTO> status(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(jobs.status(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /** Download the spooled file of a finished job */
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> download(@PathVariable String id) {
+        ExportJobService.Job job;
+        try {
+            job = jobs.find(id);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.state() != ExportJobService.State.DONE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("animals." + job.format().extension()).build().toString())
+                .contentType(job.format().mediaType())
+                .body(jobs.download(job));
+    }
+}
@@ -0,0 +1,147 @@
+package animalservice.controller;
+
+import animalservice.service.ExportArtifactStore.Artifact;
+import animalservice.service.ExportArtifactStore.Variant;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Serves a stored export artifact. The gzip variant is picked when the
+ * client accepts it, a single byte range is answered with 206 (416 when it
+ * cannot be satisfied), and the file never passes through the heap: on
+ * Tomcat's NIO connector it is handed to the connector's sendfile, which
+ * writes it to the socket with {@code FileChannel.transferTo}; elsewhere it
+ * is transferred from a {@code FileChannel} onto the response.
+ */
+final class ArtifactResponses {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    /** Below this, a plain write is cheaper than setting up sendfile (Tomcat's DefaultServlet uses the same cut) */
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    private ArtifactResponses() {
+    }
+
+    /** Strong ETag of the gzip representation of the export tagged {@code etag} */
+    static String gzipTag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    static ResponseEntity<StreamingResponseBody> serve(HttpServletRequest request, Artifact artifact,
+                                                       String etag, HttpHeaders headers, MediaType type) {
+        boolean gzip = artifact.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        Variant variant = gzip ? artifact.gzip() : artifact.identity();
+        String tag = gzip ? gzipTag(etag) : etag;
+        long length = variant.length();
+
+        headers.setETag(tag);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (gzip) headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        HttpStatus status = HttpStatus.OK;
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = range(request, tag);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= length || end < start) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = Math.max(0, end - start + 1);
+        headers.setContentLength(count);
+
+        var response = ResponseEntity.status(status).headers(headers).contentType(type);
+        if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // no body: the connector sends the file once the headers are out
+            request.setAttribute(SENDFILE_FILENAME, variant.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return response.build();
+        }
+        long from = start;
+        return response.body(out -> transfer(variant.file(), from, count, out));
+    }
+
+    /**
+     * The one range to send, or null for the whole representation: no Range
+     * header, an If-Range that does not name this representation, or a
+     * header we do not serve partially (malformed, or several ranges).
+     */
+    private static HttpRange range(HttpServletRequest request, String tag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) return null;
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // a date validator is never a match: no Last-Modified is sent
+        if (ifRange != null && !ifRange.trim().equals(tag)) return null;
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Whether {@code Accept-Encoding} allows gzip, explicitly or through {@code *}, with a non-zero q. */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        Boolean gzip = null;
+        boolean wildcard = false;
+        for (String item : acceptEncoding.split(",")) {
+            String[] parts = item.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) gzip = q > 0;
+            else if (coding.equals("*")) wildcard = q > 0;
+        }
+        return gzip != null ? gzip : wildcard;
+    }
+
+    private static void transfer(Path file, long position, long count, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            while (count > 0) {
+                long n = channel.transferTo(position, count, target);
+                if (n <= 0) break; // file shorter than announced; the client sees a short body
+                position += n;
+                count -= n;
+            }
+        }
+    }
+}
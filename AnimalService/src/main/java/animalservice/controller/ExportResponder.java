@@ -0,0 +1,86 @@
+package animalservice.controller;
+
+import animalservice.service.AnimalService;
+import animalservice.service.ExportArtifactStore;
+import animalservice.service.ExportCache;
+import animalservice.service.exporter.Exporter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The one way a full species export is answered, whichever endpoint asked
+ * for it: 304 when the client's copy is current, the stored artifact (with
+ * Range and gzip) when the catalog has not changed since it was written,
+ * and otherwise a stream from the DB cursor that is stored on the way out,
+ * or 503 when the exporter has no capacity for another document.
+ */
+@Component
+class ExportResponder {
+
+    private final AnimalService animalService;
+    private final ExportCache exportCache;
+    private final ExportArtifactStore artifactStore;
+
+    ExportResponder(AnimalService animalService, ExportCache exportCache, ExportArtifactStore artifactStore) {
+        this.animalService = animalService;
+        this.exportCache = exportCache;
+        this.artifactStore = artifactStore;
+    }
+
+    /**
+     * @param negotiated whether {@code exporter} was picked from the Accept
+     *                   header, so caches must key on it as well
+     */
+    ResponseEntity<StreamingResponseBody> respond(Exporter exporter, boolean negotiated,
+                                                  String ifNoneMatch, HttpServletRequest request) {
+        String name = exporter.name();
+        long version = exportCache.version();
+        String etag = exportCache.etag(name, version);
+        for (String tag : List.of(etag, ArtifactResponses.gzipTag(etag))) {
+            if (exportCache.matches(ifNoneMatch, tag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+            }
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDisposition(
+                ContentDisposition.attachment().filename("animals." + exporter.extension()).build()
+        );
+        headers.setCacheControl(CacheControl.noCache());
+        List<String> vary = new ArrayList<>(2);
+        if (negotiated) vary.add(HttpHeaders.ACCEPT);
+        if (exporter.compressible()) vary.add(HttpHeaders.ACCEPT_ENCODING);
+        if (!vary.isEmpty()) headers.setVary(vary);
+
+        // repeat downloads come from disk, with Range and gzip
+        ExportArtifactStore.Artifact artifact = artifactStore.find(name, version);
+        if (artifact != null) {
+            return ArtifactResponses.serve(request, artifact, etag, headers, exporter.mediaType());
+        }
+
+        // refused now rather than half-way through a 200
+        if (!exporter.available()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Export is busy, retry later");
+        }
+
+        // first one: rows go from the DB cursor straight onto the response, and to disk
+        headers.setETag(etag);
+        StreamingResponseBody body = artifactStore.capture(name, version, exporter.compressible(),
+                out -> animalService.export(exporter, null, out, null));
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(exporter.mediaType())
+                .body(body);
+    }
+}
@@ -0,0 +1,29 @@
+package animalservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogMetricsDTO {
+    /** Whether visitor reads are served from the in-memory catalog */
+    private boolean enabled;
+    /** Number of species in the current snapshot */
+    private int size;
+    /** Monotonic version, bumped on every rebuild or patch */
+    private long version;
+    /** Number of full reloads from the database, reconciles that found drift included */
+    private long rebuilds;
+    /** Duration of the last full reload, in milliseconds */
+    private double lastRebuildMillis;
+    /** Number of rows reloaded after committed writes */
+    private long patches;
+    /** Duration of the last row reload, in milliseconds */
+    private double lastPatchMillis;
+    /** Reads served from the snapshot, per endpoint (list, filter, search, byId, suggest) */
+    private Map<String, Long> hits;
+}
@@ -0,0 +1,19 @@
+package animalservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    /** Items on this page, in the requested order */
+    private List<T> content;
+    /** Requested page size */
+    private int size;
+    /** Opaque cursor for the following page; null on the last page */
+    private String next;
+}
@@ -0,0 +1,24 @@
+package animalservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistributionDTO {
+    /** Exact, from the database */
+    private double min;
+    private double max;
+    private double mean;
+    /** Population standard deviation */
+    private double stddev;
+    /** Approximate quantiles keyed p10, p25, p50, p75, p90, p99 (within 1% relative error) */
+    private Map<String, Double> quantiles;
+    /** Approximate equal-width histogram between min and max */
+    private List<HistogramBinDTO> histogram;
+}
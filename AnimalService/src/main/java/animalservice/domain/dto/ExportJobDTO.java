@@ -0,0 +1,33 @@
+package animalservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobDTO {
+    private String id;
+    /**
+     * {@link animalservice.service.exporter.Exporter#name() Name} of the exporter;
+     * any in {@link animalservice.service.exporter.ExporterRegistry}
+     */
+    private String format;
+    /** QUEUED, RUNNING, DONE or FAILED */
+    private String state;
+    /** Rows spooled so far */
+    private long rowsWritten;
+    /** Rows matching the filter when the job started */
+    private long totalRows;
+    /** rowsWritten / totalRows, between 0 and 1 */
+    private double progress;
+    /** Size of the finished file in bytes */
+    private long bytes;
+    private Instant createdAt;
+    private Instant finishedAt;
+    /** Failure message, when state is FAILED */
+    private String error;
+}
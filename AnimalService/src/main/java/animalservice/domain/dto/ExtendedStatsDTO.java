@@ -0,0 +1,19 @@
+package animalservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtendedStatsDTO {
+    /** All species together */
+    private GroupStatsDTO overall;
+    /** Per category, in category order */
+    private Map<String, GroupStatsDTO> perCategory;
+    /** Per habitat, in habitat order */
+    private Map<String, GroupStatsDTO> perHabitat;
+}
@@ -0,0 +1,17 @@
+package animalservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupStatsDTO {
+    /** Number of species in the group */
+    private long count;
+    /** Distribution of averageWeight within the group */
+    private DistributionDTO weight;
+    /** Distribution of averageAge within the group */
+    private DistributionDTO age;
+}
@@ -0,0 +1,16 @@
+package animalservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistogramBinDTO {
+    /** Lower bound, inclusive */
+    private double from;
+    /** Upper bound, exclusive except for the last bin */
+    private double to;
+    private long count;
+}
@@ -0,0 +1,16 @@
+package animalservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+    /** 1-based position of the record in the upload (CSV header not counted) */
+    private long row;
+    /** Offending field, or null when the whole record or the input is at fault */
+    private String field;
+    private String message;
+}
@@ -0,0 +1,30 @@
+package animalservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+    /** Format the upload was parsed as */
+    private String format;
+    /** Records read from the upload */
+    private long rows;
+    /** Species inserted */
+    private long imported;
+    /** Records rejected by validation or by the database */
+    private long rejected;
+    /** Insert transactions committed or attempted */
+    private int batches;
+    /** False when the upload could not be parsed to the end; rows before that point were still imported */
+    private boolean complete;
+    private double millis;
+    /** Per-row problems, in upload order, capped at animal.import.max-errors */
+    private List<ImportErrorDTO> errors;
+    /** Whether more errors occurred than are listed */
+    private boolean errorsTruncated;
+}
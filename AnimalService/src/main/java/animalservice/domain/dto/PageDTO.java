@@ -0,0 +1,29 @@
+package animalservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDTO<T> {
+    /** Items on the requested page */
+    private List<T> content;
+    /** Zero-based page index */
+    private int page;
+    /** Requested page size */
+    private int size;
+    /** Number of rows matching the query across all pages */
+    private long totalElements;
+    /** Number of pages available at this page size */
+    private int totalPages;
+
+    public static <T> PageDTO<T> from(Page<T> page) {
+        return new PageDTO<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -0,0 +1,17 @@
+package animalservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+    /** The completed value, as spelled in the catalog */
+    private String text;
+    /** Where it comes from: species, category or habitat */
+    private String field;
+    /** How many species carry this value */
+    private long count;
+}
@@ -0,0 +1,56 @@
+package animalservice.repository;
+
+import animalservice.domain.Animal;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+
+/**
+ * Animal ids used to come from AUTO_INCREMENT. MySQL has no sequences, so
+ * Hibernate emulates {@code animal_seq} with a one-row table that starts at 1
+ * when it is first created, below the ids already in the table. Before the
+ * first insert this moves it past {@code max(id)}; once it is ahead it is
+ * left alone. Runs after the EntityManagerFactory has updated the schema.
+ * <p>
+ * The table is only created by {@code ddl-auto=update} or {@code create}, so
+ * when the schema is managed by hand ({@code none}) it is created and seeded
+ * here, the way Hibernate would have. With {@code validate} Hibernate checks
+ * for it first, so create it once beforehand with the statements below.
+ */
+@Component
+public class AnimalIdSequenceAligner {
+
+    private static final Logger log = LoggerFactory.getLogger(AnimalIdSequenceAligner.class);
+
+    private final JdbcTemplate jdbc;
+
+    public AnimalIdSequenceAligner(JdbcTemplate jdbc, EntityManagerFactory schemaReady) {
+        this.jdbc = jdbc;
+    }
+
+    @PostConstruct
+    public void align() {
+        String product = jdbc.execute((Connection c) -> c.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) return;
+
+        // Hibernate's own DDL for the emulated sequence; the insert is a no-op once it has its row
+        jdbc.execute("create table if not exists animal_seq (next_val bigint) engine=InnoDB");
+        int seeded = jdbc.update(
+                "insert into animal_seq (next_val) select coalesce(max(id), 0) + ? from animal "
+                        + "where not exists (select 1 from animal_seq)",
+                Animal.ID_BLOCK);
+        if (seeded > 0) log.info("Created animal_seq past the existing animal ids");
+
+        // the pooled optimizer hands out (next_val - ID_BLOCK, next_val] for the value it reads
+        int moved = jdbc.update(
+                "update animal_seq s join (select coalesce(max(id), 0) + ? as floor from animal) m "
+                        + "set s.next_val = m.floor where s.next_val < m.floor",
+                Animal.ID_BLOCK);
+        if (moved > 0) log.info("Moved animal_seq past the existing animal ids");
+    }
+}
@@ -1,7 +1,128 @@
 package animalservice.repository;
 
 import animalservice.domain.Animal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface AnimalRepository extends JpaRepository<Animal, Long> {
-}
\ No newline at end of file
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface AnimalRepository extends JpaRepository<Animal, Long>, JpaSpecificationExecutor<Animal> {
+
+    /**
+     * MySQL Connector/J only streams a result set row by row when the fetch
+     * size is Integer.MIN_VALUE; any other value buffers the whole result.
+     */
+    String STREAM_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    /** Only the columns the statistics need, without loading managed entities. */
+    interface StatsRow {
+        Long getId();
+        String getCategory();
+        String getDietType();
+        Double getAverageWeight();
+        Double getAverageAge();
+    }
+
+    /** One bar/slice of a chart: a distinct value and how many species have it. */
+    interface GroupCount {
+        String getLabel();
+        Long getTotal();
+    }
+
+    /**
+     * Aggregates of one group, computed by the database. Sums of squares
+     * rather than STDDEV keep the query portable; the caller derives the
+     * standard deviation from them.
+     */
+    interface GroupAggregate {
+        String getLabel();
+        Long getTotal();
+        Double getMinWeight();
+        Double getMaxWeight();
+        Double getSumWeight();
+        Double getSumSqWeight();
+        Double getMinAge();
+        Double getMaxAge();
+        Double getSumAge();
+        Double getSumSqAge();
+    }
+
+    /** The values the distribution sketches need, per row */
+    interface DistributionRow {
+        String getCategory();
+        String getHabitat();
+        Double getAverageWeight();
+        Double getAverageAge();
+    }
+
+    @Query("select a.category as label, count(a) as total from Animal a group by a.category order by a.category")
+    List<GroupCount> countPerCategory();
+
+    @Query("select a.dietType as label, count(a) as total from Animal a group by a.dietType order by a.dietType")
+    List<GroupCount> countPerDietType();
+
+    @Query("select a.habitat as label, count(a) as total from Animal a group by a.habitat order by a.habitat")
+    List<GroupCount> countPerHabitat();
+
+    /*
+     * Completions for the suggest endpoint when the catalog is disabled:
+     * values starting with the prefix, or with a word starting with it.
+     * Both patterns must already be lower-cased and LIKE-escaped.
+     */
+    @Query("select a.name as label, count(a) as total from Animal a "
+            + "where lower(a.name) like :prefix escape '\\' or lower(a.name) like :wordPrefix escape '\\' "
+            + "group by a.name order by count(a) desc, a.name")
+    List<GroupCount> suggestNames(String prefix, String wordPrefix, Pageable limit);
+
+    @Query("select a.category as label, count(a) as total from Animal a "
+            + "where lower(a.category) like :prefix escape '\\' or lower(a.category) like :wordPrefix escape '\\' "
+            + "group by a.category order by count(a) desc, a.category")
+    List<GroupCount> suggestCategories(String prefix, String wordPrefix, Pageable limit);
+
+    @Query("select a.habitat as label, count(a) as total from Animal a "
+            + "where lower(a.habitat) like :prefix escape '\\' or lower(a.habitat) like :wordPrefix escape '\\' "
+            + "group by a.habitat order by count(a) desc, a.habitat")
+    List<GroupCount> suggestHabitats(String prefix, String wordPrefix, Pageable limit);
+
+    @Query("select a.category as label, count(a) as total, "
+            + "min(a.averageWeight) as minWeight, max(a.averageWeight) as maxWeight, "
+            + "sum(a.averageWeight) as sumWeight, sum(a.averageWeight * a.averageWeight) as sumSqWeight, "
+            + "min(a.averageAge) as minAge, max(a.averageAge) as maxAge, "
+            + "sum(a.averageAge) as sumAge, sum(a.averageAge * a.averageAge) as sumSqAge "
+            + "from Animal a group by a.category order by a.category")
+    List<GroupAggregate> aggregatePerCategory();
+
+    @Query("select a.habitat as label, count(a) as total, "
+            + "min(a.averageWeight) as minWeight, max(a.averageWeight) as maxWeight, "
+            + "sum(a.averageWeight) as sumWeight, sum(a.averageWeight * a.averageWeight) as sumSqWeight, "
+            + "min(a.averageAge) as minAge, max(a.averageAge) as maxAge, "
+            + "sum(a.averageAge) as sumAge, sum(a.averageAge * a.averageAge) as sumSqAge "
+            + "from Animal a group by a.habitat order by a.habitat")
+    List<GroupAggregate> aggregatePerHabitat();
+
+    /** Cursor for the one-pass distribution sketches; must be consumed inside a transaction. */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a.category as category, a.habitat as habitat, "
+            + "a.averageWeight as averageWeight, a.averageAge as averageAge from Animal a")
+    Stream<DistributionRow> streamDistributionRows();
+
+    @Query("select a.id as id, a.category as category, a.dietType as dietType, "
+            + "a.averageWeight as averageWeight, a.averageAge as averageAge from Animal a")
+    List<StatsRow> findStatsRows();
+
+    /** Cursor over the whole table for streaming exports; must be consumed inside a transaction. */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Animal> streamAllByOrderByNameAscIdAsc();
+}
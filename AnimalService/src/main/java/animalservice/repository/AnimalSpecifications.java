@@ -0,0 +1,78 @@
+package animalservice.repository;
+
+import animalservice.domain.Animal;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criteria building blocks for {@link AnimalRepository}, so the visitor
+ * filters and search run as SQL WHERE clauses instead of in-memory streams.
+ */
+public final class AnimalSpecifications {
+
+    private AnimalSpecifications() {
+    }
+
+    /** Case-insensitive equality on every non-null argument (AND-ed). */
+    public static Specification<Animal> matching(String category,
+                                                 String name,
+                                                 String dietType,
+                                                 String habitat) {
+        return Specification.allOf(
+                equalsIgnoreCase("category", category),
+                equalsIgnoreCase("name", name),
+                equalsIgnoreCase("dietType", dietType),
+                equalsIgnoreCase("habitat", habitat));
+    }
+
+    /** Case-insensitive substring match on category or name. */
+    public static Specification<Animal> search(String q) {
+        String pattern = "%" + escapeLike(q.toLowerCase()) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("category")), pattern, '\\'),
+                cb.like(cb.lower(root.get("name")), pattern, '\\'));
+    }
+
+    /**
+     * Rows strictly after {@code last} in {@code sort} order (every property
+     * of the sort must be a key of {@code last}; null means from the start).
+     * Expanded as {@code k1 > v1 OR (k1 = v1 AND k2 > v2) OR ...} rather than
+     * a row-value comparison so mixed directions work and MySQL can still
+     * turn the leading column into an index range.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Animal> after(Sort sort, Map<String, Object> last) {
+        if (last == null) return (root, query, cb) -> cb.conjunction();
+        return (root, query, cb) -> {
+            List<Predicate> or = new ArrayList<>();
+            List<Predicate> tied = new ArrayList<>();
+            for (Sort.Order order : sort) {
+                Path<Comparable> path = root.get(order.getProperty());
+                Comparable value = (Comparable) last.get(order.getProperty());
+                List<Predicate> and = new ArrayList<>(tied);
+                and.add(order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+                or.add(cb.and(and.toArray(new Predicate[0])));
+                tied.add(cb.equal(path, value));
+            }
+            return cb.or(or.toArray(new Predicate[0]));
+        };
+    }
+
+    private static Specification<Animal> equalsIgnoreCase(String field, String value) {
+        if (value == null) return null;
+        return (root, query, cb) -> cb.equal(cb.lower(root.get(field)), value.toLowerCase());
+    }
+
+    /** Escapes the LIKE wildcards in {@code term}, backslash being the escape character. */
+    public static String escapeLike(String term) {
+        return term.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
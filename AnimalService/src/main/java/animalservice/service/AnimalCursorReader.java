@@ -0,0 +1,73 @@
+package animalservice.service;
+
+import animalservice.domain.Animal;
+import animalservice.repository.AnimalRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Opens a read-only transaction around a server-side cursor over the animal
+ * table, for exports that must not materialize the catalog. Each row is
+ * detached as it is handed out so the persistence context stays empty.
+ * Works from any thread, including StreamingResponseBody executors.
+ */
+@Component
+public class AnimalCursorReader {
+
+    private final AnimalRepository animalRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AnimalCursorReader(AnimalRepository animalRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.animalRepository = animalRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /** Runs {@code work} over every animal in name order. */
+    public void read(Consumer<Stream<Animal>> work) {
+        read(null, work);
+    }
+
+    /** Runs {@code work} over the animals matching {@code filter} (all when null), in name order. */
+    public void read(Specification<Animal> filter, Consumer<Stream<Animal>> work) {
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<Animal> rows = filter == null
+                    ? animalRepository.streamAllByOrderByNameAscIdAsc()
+                    : stream(filter)) {
+                work.accept(rows.map(a -> {
+                    entityManager.detach(a);
+                    return a;
+                }));
+            }
+        });
+    }
+
+    private Stream<Animal> stream(Specification<Animal> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Animal> query = cb.createQuery(Animal.class);
+        Root<Animal> root = query.from(Animal.class);
+        Predicate where = filter.toPredicate(root, query, cb);
+        if (where != null) query.where(where);
+        query.orderBy(cb.asc(root.get("name")), cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.parseInt(AnimalRepository.STREAM_FETCH_SIZE))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
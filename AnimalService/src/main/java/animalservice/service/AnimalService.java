@@ -3,71 +3,139 @@ package animalservice.service;
 
 import animalservice.domain.Animal;
 import animalservice.domain.dto.AnimalDTO;
+import animalservice.domain.dto.CatalogMetricsDTO;
+import animalservice.domain.dto.CursorPageDTO;
+import animalservice.domain.dto.ExtendedStatsDTO;
+import animalservice.domain.dto.PageDTO;
 import animalservice.domain.dto.StatsDTO;
+import animalservice.domain.dto.SuggestionDTO;
 import animalservice.repository.AnimalRepository;
-import animalservice.service.exporter.*;
+import animalservice.repository.AnimalSpecifications;
+import animalservice.service.catalog.AnimalCatalog;
+import animalservice.service.exporter.ExportMetrics;
+import animalservice.service.exporter.Exporter;
+import animalservice.service.exporter.ExporterRegistry;
+import animalservice.service.exporter.WordExporter;
+import animalservice.service.stats.AnimalDistributionService;
+import animalservice.service.stats.AnimalStatsService;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AnimalService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Map<String, String> SORTABLE = Map.of(
+            "id", "id",
+            "name", "name",
+            "species", "name",
+            "category", "category",
+            "dietType", "dietType",
+            "habitat", "habitat",
+            "averageWeight", "averageWeight",
+            "averageAge", "averageAge");
+
     private final AnimalRepository animalRepository;
-    private final CsvExporter csvExporter;
-    private final JsonExporter jsonExporter;
-    private final XmlExporter xmlExporter;
-    private final DocxExporter docxExporter;
-    // inject your exporters/stats exporters here
+    private final ExporterRegistry exporters;
+    private final AnimalCatalog catalog;
+    private final AnimalStatsService statsService;
+    private final AnimalDistributionService distributionService;
+    private final AnimalCursorReader cursorReader;
+    private final ExportMetrics exportMetrics;
 
     public AnimalService(AnimalRepository animalRepository,
-                         CsvExporter csvExporter,
-                         JsonExporter jsonExporter,
-                         XmlExporter xmlExporter,
-                         DocxExporter docxExporter) {
+                         AnimalCatalog catalog,
+                         AnimalStatsService statsService,
+                         AnimalDistributionService distributionService,
+                         AnimalCursorReader cursorReader,
+                         ExporterRegistry exporters,
+                         ExportMetrics exportMetrics) {
         this.animalRepository = animalRepository;
-        this.csvExporter      = csvExporter;
-        this.jsonExporter     = jsonExporter;
-        this.xmlExporter      = xmlExporter;
-        this.docxExporter     = docxExporter;
-    }
-
-    public byte[] exportAll(String format) {
-        List<AnimalDTO> list = listAll("name,asc");
-        switch (format.toLowerCase()) {
-            case "json":
-                return jsonExporter.export(list);
-            case "xml":
-                return xmlExporter.export(list);
-            case "doc":
-                return docxExporter.export(list);
-            default:
-                return csvExporter.export(list);
-        }
+        this.catalog          = catalog;
+        this.statsService     = statsService;
+        this.distributionService = distributionService;
+        this.cursorReader     = cursorReader;
+        this.exporters        = exporters;
+        this.exportMetrics    = exportMetrics;
+    }
+
+    /**
+     * Streams the species matching {@code filter} (all of them when null)
+     * through {@code exporter}, heap use independent of row count.
+     * {@code progress}, if given, is incremented once per row written.
+     */
+    public void export(Exporter exporter, Specification<Animal> filter, OutputStream out, LongAdder progress) {
+        cursorReader.read(filter, rows -> {
+            Stream<AnimalDTO> dtos = rows.map(AnimalDTO::fromEntity);
+            if (progress != null) dtos = dtos.peek(a -> progress.increment());
+            exportMetrics.export(exporter, dtos, out);
+        });
     }
 
     // VISITOR: list & sort by name & dietType
     public List<AnimalDTO> listAll(String sort) {
-        List<AnimalDTO> dtos = animalRepository.findAll().stream()
+        if (catalog.isEnabled()) return catalog.list(parseSort(sort));
+        return animalRepository.findAll(parseSort(sort)).stream()
                 .map(AnimalDTO::fromEntity)
                 .collect(Collectors.toList());
+    }
 
-        Comparator<AnimalDTO> cmp = Comparator.comparing(AnimalDTO::getName);
-        for (String part : sort.split(";")) {
-            String[] kv = part.split(",");
-            String field = kv[0], dir = kv.length>1?kv[1]:"asc";
-            Comparator<AnimalDTO> by = "dietType".equals(field)
-                    ? Comparator.comparing(AnimalDTO::getDietType)
-                    : Comparator.comparing(AnimalDTO::getName);
-            cmp = "desc".equalsIgnoreCase(dir)
-                    ? cmp.thenComparing(by.reversed())
-                    : cmp.thenComparing(by);
+    public PageDTO<AnimalDTO> listPage(String sort, int page, int size) {
+        if (catalog.isEnabled()) return page(catalog.list(parseSort(sort)), pageRequest(sort, page, size));
+        return PageDTO.from(animalRepository.findAll(pageRequest(sort, page, size))
+                .map(AnimalDTO::fromEntity));
+    }
+
+    /**
+     * Keyset-paginated listing. Without a cursor the first page is returned
+     * in {@code sort} order; with one, the page after it, in the order the
+     * cursor was issued for ({@code sort} is then ignored).
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPageDTO<AnimalDTO> listAfter(String sort, String cursor, int limit) {
+        KeysetCursor from = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        String spec = from == null ? sort : from.sort();
+        Sort order = parseSort(spec);
+        Map<String, Object> after = from == null ? null : from.after();
+        if (after != null && !AnimalCatalog.isSortKey(after, order)) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        List<AnimalDTO> rows;
+        if (catalog.isEnabled()) {
+            rows = catalog.listAfter(order, after, size + 1);
+        } else {
+            rows = animalRepository.findBy(AnimalSpecifications.after(order, after),
+                            q -> q.sortBy(order).limit(size + 1).all()).stream()
+                    .map(AnimalDTO::fromEntity)
+                    .collect(Collectors.toList());
+        }
+
+        // one extra row tells whether there is a next page
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            next = new KeysetCursor(spec, AnimalCatalog.sortKey(rows.get(size - 1), order)).encode();
         }
-        dtos.sort(cmp);
-        return dtos;
+        return new CursorPageDTO<>(rows, size, next);
     }
 
     // VISITOR: filter by category, name, dietType, habitat
@@ -75,37 +143,122 @@ public class AnimalService {
                                   String name,
                                   String dietType,
                                   String habitat) {
-        return animalRepository.findAll().stream()
+        if (catalog.isEnabled()) return catalog.filter(category, name, dietType, habitat);
+        return animalRepository.findAll(AnimalSpecifications.matching(category, name, dietType, habitat)).stream()
                 .map(AnimalDTO::fromEntity)
-                .filter(a -> category  == null || a.getCategory().equalsIgnoreCase(category))
-                .filter(a -> name      == null || a.getName().equalsIgnoreCase(name))
-                .filter(a -> dietType  == null || a.getDietType().equalsIgnoreCase(dietType))
-                .filter(a -> habitat   == null || a.getHabitat().equalsIgnoreCase(habitat))
                 .collect(Collectors.toList());
     }
 
+    public PageDTO<AnimalDTO> filterPage(String category,
+                                         String name,
+                                         String dietType,
+                                         String habitat,
+                                         String sort, int page, int size) {
+        if (catalog.isEnabled()) {
+            return page(AnimalCatalog.sorted(catalog.filter(category, name, dietType, habitat), parseSort(sort)),
+                    pageRequest(sort, page, size));
+        }
+        return PageDTO.from(animalRepository.findAll(
+                        AnimalSpecifications.matching(category, name, dietType, habitat),
+                        pageRequest(sort, page, size))
+                .map(AnimalDTO::fromEntity));
+    }
+
     // VISITOR: search by category or name
     public List<AnimalDTO> search(String q) {
-        String term = q.toLowerCase();
-        return animalRepository.findAll().stream()
+        if (catalog.isEnabled()) return catalog.search(q);
+        return animalRepository.findAll(AnimalSpecifications.search(q)).stream()
                 .map(AnimalDTO::fromEntity)
-                .filter(a -> a.getCategory().toLowerCase().contains(term)
-                        || a.getName().toLowerCase().contains(term))
                 .collect(Collectors.toList());
     }
 
+    public PageDTO<AnimalDTO> searchPage(String q, String sort, int page, int size) {
+        if (catalog.isEnabled()) {
+            return page(AnimalCatalog.sorted(catalog.search(q), parseSort(sort)), pageRequest(sort, page, size));
+        }
+        return PageDTO.from(animalRepository.findAll(AnimalSpecifications.search(q), pageRequest(sort, page, size))
+                .map(AnimalDTO::fromEntity));
+    }
+
+    // VISITOR: autocomplete for the search box
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        int k = Math.min(Math.max(limit, 1), AnimalCatalog.MAX_SUGGESTIONS);
+        if (catalog.isEnabled()) return catalog.suggest(prefix, k);
+
+        String term = AnimalSpecifications.escapeLike(prefix.stripLeading().toLowerCase(Locale.ROOT));
+        String starts = term + "%";
+        String wordStarts = "% " + term + "%";
+        PageRequest top = PageRequest.of(0, k);
+        List<SuggestionDTO> out = new ArrayList<>();
+        animalRepository.suggestNames(starts, wordStarts, top)
+                .forEach(g -> out.add(new SuggestionDTO(g.getLabel(), "species", g.getTotal())));
+        animalRepository.suggestCategories(starts, wordStarts, top)
+                .forEach(g -> out.add(new SuggestionDTO(g.getLabel(), "category", g.getTotal())));
+        animalRepository.suggestHabitats(starts, wordStarts, top)
+                .forEach(g -> out.add(new SuggestionDTO(g.getLabel(), "habitat", g.getTotal())));
+        // same order as the catalog: most common first, the lists are already species/category/habitat
+        out.sort(Comparator.comparingLong(SuggestionDTO::getCount).reversed());
+        return out.size() <= k ? out : new ArrayList<>(out.subList(0, k));
+    }
+
+    /**
+     * Translates the {@code field,dir;field,dir} grammar into an ORDER BY.
+     * {@code species} is accepted as an alias of {@code name}; unknown fields
+     * fall back to {@code name}, and {@code id} is appended as a tie-breaker so
+     * page boundaries are stable.
+     */
+    static Sort parseSort(String sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String part : sort.split(";")) {
+            if (part.isBlank()) continue;
+            String[] kv = part.split(",");
+            String field = SORTABLE.getOrDefault(kv[0].trim(), "name");
+            Sort.Direction dir = kv.length > 1 && "desc".equalsIgnoreCase(kv[1].trim())
+                    ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+            if (orders.stream().noneMatch(o -> o.getProperty().equals(field))) {
+                orders.add(new Sort.Order(dir, field));
+            }
+        }
+        if (orders.isEmpty()) orders.add(Sort.Order.asc("name"));
+        if (orders.stream().noneMatch(o -> o.getProperty().equals("id"))) orders.add(Sort.Order.asc("id"));
+        return Sort.by(orders);
+    }
+
+    /** Cuts one page out of an already sorted in-memory result. */
+    private static PageDTO<AnimalDTO> page(List<AnimalDTO> sorted, PageRequest request) {
+        int from = (int) Math.min(request.getOffset(), sorted.size());
+        int to = Math.min(from + request.getPageSize(), sorted.size());
+        return PageDTO.from(new PageImpl<>(sorted.subList(from, to), request, sorted.size()));
+    }
+
+    private static PageRequest pageRequest(String sort, int page, int size) {
+        return PageRequest.of(Math.max(page, 0),
+                Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                parseSort(sort));
+    }
+
     // EMPLOYEE: CRUD
+    // the catalog reloads each written row after the commit, so a rolled-back write never shows up there
+    @Transactional
     public AnimalDTO saveAnimal(AnimalDTO animalDTO) {
         Animal a = AnimalDTO.toEntity(animalDTO);
-        return AnimalDTO.fromEntity(animalRepository.save(a));
+        AnimalDTO saved = AnimalDTO.fromEntity(animalRepository.save(a));
+        catalog.changed(saved.getId());
+        return saved;
     }
 
     public AnimalDTO getAnimalById(Long id) {
+        if (catalog.isEnabled()) {
+            Optional<AnimalDTO> cached = catalog.findById(id);
+            if (cached.isPresent()) return cached.get();
+        }
         return animalRepository.findById(id)
                 .map(AnimalDTO::fromEntity)
                 .orElseThrow(() -> new NoSuchElementException("Animal not found: " + id));
     }
 
+    @Transactional
     public AnimalDTO updateAnimal(Long id, AnimalDTO animalDTO) {
         Animal existing = animalRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Animal not found: " + id));
@@ -115,91 +268,33 @@ public class AnimalService {
         existing.setHabitat(animalDTO.getHabitat());
         existing.setAverageWeight(animalDTO.getAverageWeight());
         existing.setAverageAge(animalDTO.getAverageAge());
-        return AnimalDTO.fromEntity(animalRepository.save(existing));
+        AnimalDTO saved = AnimalDTO.fromEntity(animalRepository.save(existing));
+        catalog.changed(id);
+        return saved;
     }
 
+    @Transactional
     public void deleteAnimal(Long id) {
         animalRepository.deleteById(id);
+        catalog.changed(id);
     }
 
-    // EMPLOYEE & MANAGER: export in multiple formats
-
+    public CatalogMetricsDTO catalogMetrics() {
+        return catalog.metrics();
+    }
 
     // MANAGER: stats
     public StatsDTO computeStats() {
-        List<Animal> all = animalRepository.findAll();
-        StatsDTO stats = new StatsDTO();
-        stats.setCountPerCategory(all.stream()
-                .collect(Collectors.groupingBy(Animal::getCategory, Collectors.counting())));
-        stats.setDietDistribution(all.stream()
-                .collect(Collectors.groupingBy(Animal::getDietType, Collectors.counting())));
-        stats.setAvgWeight(all.stream().mapToDouble(Animal::getAverageWeight).average().orElse(0));
-        stats.setAvgAge(all.stream().mapToDouble(Animal::getAverageAge).average().orElse(0));
-        return stats;
+        return statsService.current();
+    }
+
+    // MANAGER: per-category and per-habitat distributions
+    public ExtendedStatsDTO computeExtendedStats(int bins) {
+        return distributionService.compute(bins);
     }
 
     public byte[] exportStatsWord() {
         StatsDTO stats = computeStats();
-        return WordExporter.export(stats);
+        return WordExporter.export(stats, distributionService.compute(AnimalDistributionService.DEFAULT_BINS));
     }
 }
-
-
-
-//package animalservice.service;
-//
-//import animalservice.domain.Animal;
-//import animalservice.domain.dto.AnimalDTO;
-//import animalservice.repository.AnimalRepository;
-//import org.springframework.stereotype.Service;
-//
-//import java.util.List;
-//import java.util.stream.Collectors;
-//
-//@Service
-//public class AnimalService {
-//
-//    private final AnimalRepository animalRepository;
-//
-//    public AnimalService(AnimalRepository animalRepository) {
-//        this.animalRepository = animalRepository;
-//    }
-//
-//    public List<AnimalDTO> getAllAnimal() {
-//        return animalRepository.findAll().stream()
-//                .map(AnimalDTO::fromEntity)
-//                .collect(Collectors.toList());
-//    }
-//
-//    public AnimalDTO getAnimalById(Long id) {
-//        return animalRepository.findById(id)
-//                .map(AnimalDTO::fromEntity)
-//                .orElseThrow(() -> new RuntimeException("Animal not found"));
-//    }
-//
-//    public AnimalDTO saveAnimal(AnimalDTO animalDTO) {
-//        Animal animal = AnimalDTO.toEntity(animalDTO);
-//        return AnimalDTO.fromEntity(animalRepository.save(animal));
-//    }
-//
-//    public AnimalDTO updateAnimal(Long id, AnimalDTO animalDTO) {
-//
-//        Animal existingAnimal = animalRepository.findById(id)
-//                .orElseThrow(() -> new RuntimeException("Animal not found with id: " + id));
-//
-//        existingAnimal.setName(animalDTO.getName());
-//        existingAnimal.setCategory(animalDTO.getCategory());
-//
-//        existingAnimal.setDietType(animalDTO.getDietType());
-//        existingAnimal.setHabitat(animalDTO.getHabitat());
-//        existingAnimal.setAverageWeight(animalDTO.getAverageWeight());
-//        existingAnimal.setAverageAge(animalDTO.getAverageAge());
-//        Animal saved = animalRepository.save(existingAnimal);
-//        return AnimalDTO.fromEntity(saved);
-//
-//    }
-//
-//    public void deleteAnimal(Long id) {
-//        animalRepository.deleteById(id);
-//    }
-//}
\ No newline at end of file
@@ -0,0 +1,253 @@
+package animalservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Generated exports kept on local disk, so a repeated download is a file
+ * transfer instead of a query and a serialization. An artifact is recorded
+ * per (format, catalog version) but stored under the SHA-256 of its bytes,
+ * so versions whose export did not change share one file. Compressible
+ * formats get a gzip variant next to it, built once in the background at
+ * the highest level. Only the newest version of each format is indexed;
+ * files nothing refers to any more are deleted after a grace period, long
+ * enough for downloads that already picked them.
+ * <p>
+ * The directory is configurable and may be shared, so the store only ever
+ * deletes files named like its own ({@value #PREFIX}{@code <sha-256>.<format>},
+ * its {@code .gz} variant and spool files); anything else is left alone.
+ */
+@Component
+public class ExportArtifactStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportArtifactStore.class);
+    private static final String PREFIX = "export-";
+    private static final String SPOOL_PREFIX = PREFIX + "spool-";
+    private static final Pattern OWN_FILE = Pattern.compile(
+            Pattern.quote(PREFIX) + "([0-9a-f]{64}\\.[a-z0-9_-]+(\\.gz)?|spool-\\d+\\.tmp)");
+
+    /** One stored encoding of an artifact */
+    public record Variant(Path file, long length) {
+    }
+
+    /** {@code gzip} is null until it has been built, and for formats that are compressed already */
+    public record Artifact(String hash, Variant identity, Variant gzip) {
+    }
+
+    private record Key(String name, long version) {
+    }
+
+    private final Path dir;
+    private final long graceMillis;
+    private final Map<Key, Artifact> index = new ConcurrentHashMap<>();
+    /** Unreferenced files and when a sweep first saw them so */
+    private final Map<Path, Long> unreferencedSince = new ConcurrentHashMap<>();
+    private final ExecutorService compressor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "export-gzip");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ExportArtifactStore(@Value("${animal.export.store.dir:${java.io.tmpdir}/animal-export-store}") Path dir,
+                               @Value("${animal.export.store.grace-ms:300000}") long graceMillis) throws IOException {
+        this.dir = Files.createDirectories(dir);
+        this.graceMillis = graceMillis;
+        // the index is in memory and ETags carry a per-run epoch: nothing from a previous run is reachable
+        try (Stream<Path> files = ownFiles()) {
+            files.forEach(ExportArtifactStore::delete);
+        }
+    }
+
+    public Artifact find(String name, long version) {
+        return index.get(new Key(name, version));
+    }
+
+    /**
+     * Wraps a streaming export so its bytes are also spooled to disk and
+     * recorded as the artifact of {@code (name, version)} once complete.
+     * The gzip variant follows in the background when {@code compressible}.
+     */
+    public StreamingResponseBody capture(String name, long version, boolean compressible,
+                                         StreamingResponseBody producer) {
+        return out -> {
+            Path spool = Files.createTempFile(dir, SPOOL_PREFIX, ".tmp");
+            try {
+                MessageDigest sha = sha256();
+                try (OutputStream file = new DigestOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(spool), 64 * 1024), sha)) {
+                    producer.writeTo(new Tee(out, file));
+                }
+                out.flush();
+                store(new Key(name, version), spool, HexFormat.of().formatHex(sha.digest()), compressible);
+            } finally {
+                delete(spool); // already moved into place on success
+            }
+        };
+    }
+
+    private void store(Key key, Path spool, String hash, boolean compressible) throws IOException {
+        Path file = dir.resolve(PREFIX + hash + "." + key.name());
+        Artifact artifact;
+        synchronized (this) {
+            boolean superseded = index.keySet().stream()
+                    .anyMatch(k -> k.name().equals(key.name()) && k.version() > key.version());
+            if (superseded) return;
+
+            if (!Files.exists(file)) Files.move(spool, file, StandardCopyOption.ATOMIC_MOVE);
+            Variant gzip = index.values().stream()
+                    .filter(a -> a.identity().file().equals(file) && a.gzip() != null)
+                    .map(Artifact::gzip)
+                    .findFirst().orElse(null);
+            artifact = new Artifact(hash, new Variant(file, Files.size(file)), gzip);
+
+            index.keySet().removeIf(k -> k.name().equals(key.name()) && k.version() < key.version());
+            index.put(key, artifact);
+        }
+        if (compressible && artifact.gzip() == null) {
+            compressor.execute(() -> compress(key, artifact));
+        }
+    }
+
+    private void compress(Key key, Artifact artifact) {
+        Path source = artifact.identity().file();
+        Path gz = source.resolveSibling(source.getFileName() + ".gz");
+        Path spool = null;
+        try {
+            if (!Files.exists(gz)) {
+                spool = Files.createTempFile(dir, SPOOL_PREFIX, ".tmp");
+                try (InputStream in = Files.newInputStream(source);
+                     OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(spool)), 64 * 1024) {
+                         { def.setLevel(Deflater.BEST_COMPRESSION); }
+                     }) {
+                    in.transferTo(out);
+                }
+            }
+            // under the sweep's lock: a gz it found unreferenced may be deleted up to here
+            synchronized (this) {
+                if (spool != null && !Files.exists(gz)) Files.move(spool, gz, StandardCopyOption.ATOMIC_MOVE);
+                if (!Files.exists(gz)) return;
+                long length = Files.size(gz);
+                // not worth a second representation: the sweep removes the file
+                if (length >= artifact.identity().length()) return;
+                index.computeIfPresent(key, (k, current) -> current.hash().equals(artifact.hash())
+                        ? new Artifact(current.hash(), current.identity(), new Variant(gz, length))
+                        : current);
+            }
+        } catch (IOException e) {
+            log.warn("Could not precompress {}", source, e);
+        } finally {
+            delete(spool);
+        }
+    }
+
+    /**
+     * Deletes files that nothing has referred to for the whole grace period.
+     * Runs under the lock {@link #store} publishes under, so a file that
+     * is being reused by a new artifact is never deleted beneath it.
+     */
+    @Scheduled(fixedDelayString = "${animal.export.store.sweep-interval-ms:60000}")
+    public synchronized void sweep() {
+        Set<Path> referenced = new HashSet<>();
+        for (Artifact a : index.values()) {
+            referenced.add(a.identity().file());
+            if (a.gzip() != null) referenced.add(a.gzip().file());
+        }
+        long now = System.currentTimeMillis();
+        try (Stream<Path> files = ownFiles()) {
+            files.filter(f -> !f.getFileName().toString().startsWith(SPOOL_PREFIX)).forEach(f -> {
+                if (referenced.contains(f)) {
+                    unreferencedSince.remove(f);
+                } else if (now - unreferencedSince.computeIfAbsent(f, k -> now) >= graceMillis) {
+                    delete(f);
+                    unreferencedSince.remove(f);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Export store sweep failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compressor.shutdownNow();
+    }
+
+    /** Regular files in the directory that this store wrote */
+    private Stream<Path> ownFiles() throws IOException {
+        return Files.list(dir)
+                .filter(f -> OWN_FILE.matcher(f.getFileName().toString()).matches() && Files.isRegularFile(f));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void delete(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Passes writes through to the response while writing them to the spool file as well. */
+    private static final class Tee extends FilterOutputStream {
+        private final OutputStream copy;
+
+        Tee(OutputStream out, OutputStream copy) {
+            super(out);
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package animalservice.service;
+
+import animalservice.service.catalog.AnimalCatalog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps small generated documents (the statistics report) keyed by (name,
+ * catalog version), bounded by total bytes with LRU eviction; species
+ * exports live on disk in {@link ExportArtifactStore}. The same pair also
+ * yields a strong ETag, so a client holding a current copy can be answered
+ * with 304 before any query or serialization happens.
+ */
+@Component
+public class ExportCache {
+
+    private record Key(String name, long version) {
+    }
+
+    private final AnimalCatalog catalog;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    /** Distinguishes versions across restarts, when the counter starts over */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public ExportCache(AnimalCatalog catalog,
+                       @Value("${animal.export.cache.max-bytes:67108864}") long maxBytes) {
+        this.catalog = catalog;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxBytes / 4;
+    }
+
+    public long version() {
+        return catalog.version();
+    }
+
+    public String etag(String name, long version) {
+        return "\"" + name + "-" + epoch + "-" + version + "\"";
+    }
+
+    /** Weak comparison of an If-None-Match header against {@code etag}, as RFC 9110 prescribes. */
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    public synchronized byte[] get(String name, long version) {
+        return entries.get(new Key(name, version));
+    }
+
+    public byte[] getOrCompute(String name, long version, Supplier<byte[]> producer) {
+        byte[] hit = get(name, version);
+        if (hit != null) return hit;
+        byte[] data = producer.get();
+        put(new Key(name, version), data);
+        return data;
+    }
+
+    private synchronized void put(Key key, byte[] data) {
+        if (data.length > maxEntryBytes) return;
+        byte[] previous = entries.put(key, data);
+        totalBytes += data.length - (previous == null ? 0 : previous.length);
+
+        // drop older versions of the same export first, then least recently used
+        entries.entrySet().removeIf(e -> {
+            boolean stale = e.getKey().name().equals(key.name()) && e.getKey().version() < key.version();
+            if (stale) totalBytes -= e.getValue().length;
+            return stale;
+        });
+        Iterator<Map.Entry<Key, byte[]>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            totalBytes -= it.next().getValue().length;
+            it.remove();
+        }
+    }
+}
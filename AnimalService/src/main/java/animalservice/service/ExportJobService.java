@@ -0,0 +1,259 @@
+package animalservice.service;
+
+import animalservice.domain.Animal;
+import animalservice.domain.dto.ExportJobDTO;
+import animalservice.repository.AnimalRepository;
+import animalservice.service.exporter.Exporter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs exports in the background: jobs are queued on a bounded worker
+ * pool, spool their output to a temp file and are downloaded once done.
+ * Finished files are deleted after a TTL, so slow exports no longer pin a
+ * Tomcat request thread for their whole duration. Each open download
+ * holds a lease on its job; the file is kept while any is held and the
+ * TTL only runs from the later of the finish and the last download.
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportJobService.class);
+
+    public enum State { QUEUED, RUNNING, DONE, FAILED }
+
+    /** Mutable job record; fields are written by the worker and read by status polls. */
+    public static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final Exporter format;
+        final Instant createdAt = Instant.now();
+        final LongAdder rowsWritten = new LongAdder();
+        volatile State state = State.QUEUED;
+        volatile long totalRows;
+        volatile Path file;
+        volatile Instant finishedAt;
+        volatile String error;
+        /** Downloads streaming the file right now; guarded by the job's monitor */
+        int leases;
+        Instant lastReleasedAt;
+        boolean evicted;
+
+        Job(Exporter format) {
+            this.format = format;
+        }
+
+        public Exporter format() {
+            return format;
+        }
+
+        public State state() {
+            return state;
+        }
+
+        public Path file() {
+            return file;
+        }
+
+        synchronized boolean acquire() {
+            if (evicted) return false;
+            leases++;
+            return true;
+        }
+
+        synchronized void release() {
+            leases--;
+            lastReleasedAt = Instant.now();
+        }
+
+        /** Marks the job evicted unless a download holds it or ended after {@code cutoff}. */
+        synchronized boolean evictIfIdle(Instant cutoff) {
+            boolean idle = finishedAt != null && finishedAt.isBefore(cutoff)
+                    && leases == 0 && (lastReleasedAt == null || lastReleasedAt.isBefore(cutoff));
+            if (idle) evicted = true;
+            return idle;
+        }
+    }
+
+    private final AnimalService animalService;
+    private final AnimalRepository animalRepository;
+    private final Path spoolDir;
+    private final Duration ttl;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public ExportJobService(AnimalService animalService,
+                            AnimalRepository animalRepository,
+                            @Value("${animal.export.jobs.dir:${java.io.tmpdir}/animal-exports}") Path spoolDir,
+                            @Value("${animal.export.jobs.workers:2}") int workerCount,
+                            @Value("${animal.export.jobs.queue-capacity:16}") int queueCapacity,
+                            @Value("${animal.export.jobs.ttl-ms:3600000}") long ttlMs) throws IOException {
+        this.animalService = animalService;
+        this.animalRepository = animalRepository;
+        this.spoolDir = Files.createDirectories(spoolDir);
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "export-job");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues an export of the animals matching {@code filter} (all when null).
+     *
+     * @throws RejectedExecutionException when the queue is full
+     */
+    public ExportJobDTO submit(Exporter format, Specification<Animal> filter) {
+        Job job = new Job(format);
+        jobs.put(job.id, job);
+        try {
+            workers.execute(() -> run(job, filter));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        return toDto(job);
+    }
+
+    public ExportJobDTO status(String id) {
+        return toDto(find(id));
+    }
+
+    public Job find(String id) {
+        return Optional.ofNullable(jobs.get(id))
+                .orElseThrow(() -> new NoSuchElementException("Export job not found: " + id));
+    }
+
+    /**
+     * The finished file of {@code job} as a resource whose streams hold a
+     * lease on the job until closed, so eviction cannot delete it mid-download.
+     */
+    public Resource download(Job job) {
+        return new FileSystemResource(job.file) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                if (!job.acquire()) throw new FileNotFoundException("Export job expired: " + job.id);
+                try {
+                    return new Leased(super.getInputStream(), job);
+                } catch (IOException | RuntimeException e) {
+                    job.release();
+                    throw e;
+                }
+            }
+        };
+    }
+
+    private void run(Job job, Specification<Animal> filter) {
+        job.state = State.RUNNING;
+        Path file = null;
+        try {
+            job.totalRows = filter == null ? animalRepository.count() : animalRepository.count(filter);
+            file = Files.createTempFile(spoolDir, "animals-", "." + job.format.extension());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+                animalService.export(job.format, filter, out, job.rowsWritten);
+            }
+            job.file = file;
+            job.state = State.DONE;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Export job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.state = State.FAILED;
+            delete(file);
+        } finally {
+            job.finishedAt = Instant.now();
+        }
+    }
+
+    /** Forgets jobs idle for longer than the TTL and deletes their files; downloads in flight keep theirs. */
+    @Scheduled(fixedDelayString = "${animal.export.jobs.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        Instant cutoff = Instant.now().minus(ttl);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.evictIfIdle(cutoff);
+            if (expired) delete(job.file);
+            return expired;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        jobs.values().forEach(job -> delete(job.file));
+    }
+
+    private static void delete(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Releases the job's lease once, when the download closes its stream. */
+    private static final class Leased extends FilterInputStream {
+        private final Job job;
+        private boolean released;
+
+        Leased(InputStream in, Job job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!released) {
+                    released = true;
+                    job.release();
+                }
+            }
+        }
+    }
+
+    private static ExportJobDTO toDto(Job job) {
+        long rows = job.rowsWritten.sum();
+        long total = job.totalRows;
+        double progress = job.state == State.DONE ? 1.0 : total == 0 ? 0.0 : Math.min(1.0, (double) rows / total);
+        long bytes = 0;
+        if (job.file != null) {
+            try {
+                bytes = Files.size(job.file);
+            } catch (IOException ignored) {
+                // file already cleaned up
+            }
+        }
+        return new ExportJobDTO(job.id, job.format.name(), job.state.name(),
+                rows, total, progress, bytes, job.createdAt, job.finishedAt, job.error);
+    }
+}
@@ -0,0 +1,68 @@
+package animalservice.service;
+
+import java.io.*;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort a listing was
+ * started with and the sort-key values of the last row handed out. The next
+ * page is everything strictly after that tuple, so a deep page costs the
+ * same as the first one and rows inserted or deleted meanwhile are neither
+ * skipped nor repeated.
+ */
+public record KeysetCursor(String sort, Map<String, Object> after) {
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(sort);
+            out.writeByte(after.size());
+            for (Map.Entry<String, Object> e : after.entrySet()) {
+                out.writeUTF(e.getKey());
+                Object v = e.getValue();
+                if (v == null) {
+                    out.writeByte('N');
+                } else if (v instanceof Long l) {
+                    out.writeByte('L');
+                    out.writeLong(l);
+                } else if (v instanceof Double d) {
+                    out.writeByte('D');
+                    out.writeDouble(d);
+                } else {
+                    out.writeByte('S');
+                    out.writeUTF(v.toString());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /** @throws IllegalArgumentException if {@code token} was not produced by {@link #encode()} */
+    public static KeysetCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            String sort = in.readUTF();
+            int n = in.readUnsignedByte();
+            Map<String, Object> after = new LinkedHashMap<>();
+            for (int i = 0; i < n; i++) {
+                String key = in.readUTF();
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 'N': after.put(key, null); break;
+                    case 'L': after.put(key, in.readLong()); break;
+                    case 'D': after.put(key, in.readDouble()); break;
+                    case 'S': after.put(key, in.readUTF()); break;
+                    default: throw new IllegalArgumentException("Malformed cursor");
+                }
+            }
+            if (in.available() > 0) throw new IllegalArgumentException("Malformed cursor");
+            return new KeysetCursor(sort, after);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package animalservice.service.catalog;
+
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.domain.dto.CatalogMetricsDTO;
+import animalservice.domain.dto.SuggestionDTO;
+import animalservice.repository.AnimalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Copy-on-write, in-memory view of the species catalog used by the visitor
+ * read endpoints. Reads take a volatile snapshot reference and never touch
+ * the database. After a write commits, the changed row is read back by id
+ * and a new snapshot is built with it; the reads go one at a time, each
+ * after its own commit, so the last one always sees the latest row and a
+ * rolled-back write changes nothing. A periodic reconcile reloads the whole
+ * table, which picks up writes made by other instances or directly in SQL.
+ */
+@Component
+public class AnimalCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(AnimalCatalog.class);
+
+    /** Most completions a single suggest call returns */
+    public static final int MAX_SUGGESTIONS = SuggestTrie.MAX_RESULTS;
+
+    private final AnimalRepository animalRepository;
+    /** Reads a row back in a transaction of its own, not in the one that just committed */
+    private final TransactionTemplate readBack;
+    private final boolean enabled;
+
+    private volatile CatalogSnapshot snapshot;
+    private final AtomicLong version = new AtomicLong();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder patches = new LongAdder();
+    private volatile long lastRebuildNanos;
+    private volatile long lastPatchNanos;
+
+    private final LongAdder listHits = new LongAdder();
+    private final LongAdder filterHits = new LongAdder();
+    private final LongAdder searchHits = new LongAdder();
+    private final LongAdder byIdHits = new LongAdder();
+    private final LongAdder suggestHits = new LongAdder();
+
+    public AnimalCatalog(AnimalRepository animalRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${animal.catalog.enabled:true}") boolean enabled) {
+        this.animalRepository = animalRepository;
+        this.readBack = new TransactionTemplate(transactionManager);
+        this.readBack.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readBack.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Current catalog version; changes whenever the visible data changes. */
+    public long version() {
+        return version.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) rebuild();
+    }
+
+    /** Reloads every row from the database and swaps the snapshot in. */
+    public synchronized void rebuild() {
+        install(load(), System.nanoTime());
+    }
+
+    /**
+     * Reloads every row and swaps the snapshot in if it differs from the
+     * one served, which repairs whatever the per-row reloads missed. The
+     * version only moves when something did change.
+     */
+    @Scheduled(initialDelayString = "${animal.catalog.reconcile-interval-ms:300000}",
+               fixedDelayString = "${animal.catalog.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        if (!enabled || snapshot == null) return;
+        long start = System.nanoTime();
+        List<AnimalDTO> all = load();
+        if (sameRows(snapshot, all)) return;
+        install(all, start);
+        log.info("Animal catalog drifted from the database and was reconciled ({} rows)", all.size());
+    }
+
+    /** After bulk writes: one rebuild instead of a patch per row. */
+    public synchronized void refresh() {
+        if (enabled) rebuild();
+        else version.incrementAndGet();
+    }
+
+    /**
+     * Brings the row {@code id} up to date from the database once the
+     * current transaction commits, or right away outside of one. Nothing
+     * happens when it rolls back.
+     */
+    public void changed(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        reload(id);
+                    } catch (RuntimeException e) {
+                        // the write stands; the next reconcile picks the row up
+                        log.warn("Reloading animal {} into the catalog failed", id, e);
+                    }
+                }
+            });
+        } else {
+            reload(id);
+        }
+    }
+
+    synchronized void reload(Long id) {
+        if (!enabled) {
+            version.incrementAndGet();
+            return;
+        }
+        long start = System.nanoTime();
+        AnimalDTO row = readBack.execute(status ->
+                animalRepository.findById(id).map(AnimalDTO::fromEntity).orElse(null));
+        CatalogSnapshot current = snapshot();
+        snapshot = row == null
+                ? current.withRemoval(id, version.incrementAndGet())
+                : current.withUpsert(row, version.incrementAndGet());
+        lastPatchNanos = System.nanoTime() - start;
+        patches.increment();
+    }
+
+    public Optional<AnimalDTO> findById(Long id) {
+        byIdHits.increment();
+        return Optional.ofNullable(snapshot().byId(id));
+    }
+
+    public List<AnimalDTO> list(Sort sort) {
+        listHits.increment();
+        return ordered(snapshot(), sort);
+    }
+
+    /**
+     * Keyset page: up to {@code limit} rows strictly after the row whose sort
+     * key is {@code after} (from the start when null), found by binary search
+     * in the snapshot's ordering for {@code sort}.
+     *
+     * @param after a {@link #isSortKey sort key} of {@code sort}
+     */
+    public List<AnimalDTO> listAfter(Sort sort, Map<String, Object> after, int limit) {
+        listHits.increment();
+        List<AnimalDTO> rows = ordered(snapshot(), sort);
+        int from = 0;
+        if (after != null) {
+            int at = Collections.binarySearch(rows, probe(after), comparator(sort));
+            from = at >= 0 ? at + 1 : -at - 1;
+        }
+        return new ArrayList<>(rows.subList(from, Math.min(rows.size(), from + limit)));
+    }
+
+    /** Values of the {@code sort} properties of {@code animal}, in sort order; the cursor of a keyset page. */
+    public static Map<String, Object> sortKey(AnimalDTO animal, Sort sort) {
+        Map<String, Object> key = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            key.put(order.getProperty(), accessor(order.getProperty()).apply(animal));
+        }
+        return key;
+    }
+
+    /**
+     * Whether {@code key} has exactly the properties of {@code sort}, each
+     * with a value of the property's type, as {@link #sortKey} makes them
+     * (every column is NOT NULL).
+     */
+    public static boolean isSortKey(Map<String, Object> key, Sort sort) {
+        if (key.size() != sort.stream().map(Sort.Order::getProperty).distinct().count()) return false;
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            if (!keyType(property).isInstance(key.get(property))) return false;
+        }
+        return true;
+    }
+
+    public List<AnimalDTO> filter(String category, String name, String dietType, String habitat) {
+        filterHits.increment();
+        CatalogSnapshot s = snapshot();
+
+        // start from the narrowest hash index, then check the remaining criteria
+        List<AnimalDTO> candidates = s.byName;
+        candidates = narrower(candidates, s.byCategory, category);
+        candidates = narrower(candidates, s.byDietType, dietType);
+        candidates = narrower(candidates, s.byHabitat, habitat);
+
+        List<AnimalDTO> out = new ArrayList<>();
+        for (AnimalDTO a : candidates) {
+            if (matches(a.getCategory(), category)
+                    && matches(a.getName(), name)
+                    && matches(a.getDietType(), dietType)
+                    && matches(a.getHabitat(), habitat)) {
+                out.add(a);
+            }
+        }
+        return out;
+    }
+
+    /** Substring match on name or category via the trigram index, best matches first. */
+    public List<AnimalDTO> search(String q) {
+        searchHits.increment();
+        CatalogSnapshot s = snapshot();
+        int[] positions = s.search(CatalogSnapshot.lower(q));
+        List<AnimalDTO> out = new ArrayList<>(positions.length);
+        for (int pos : positions) {
+            out.add(s.byName.get(pos));
+        }
+        return out;
+    }
+
+    /** Up to {@code limit} completions of {@code prefix}, most common first. */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        suggestHits.increment();
+        return snapshot().suggest(CatalogSnapshot.lower(prefix).stripLeading(), limit);
+    }
+
+    /** Sorts a copy of {@code source} unless it is already in name order. */
+    public static List<AnimalDTO> sorted(List<AnimalDTO> source, Sort sort) {
+        if (isNameOrder(sort)) return source;
+        List<AnimalDTO> copy = new ArrayList<>(source);
+        copy.sort(comparator(sort));
+        return copy;
+    }
+
+    public CatalogMetricsDTO metrics() {
+        CatalogSnapshot s = enabled ? snapshot() : null;
+        Map<String, Long> hits = new LinkedHashMap<>();
+        hits.put("list", listHits.sum());
+        hits.put("filter", filterHits.sum());
+        hits.put("search", searchHits.sum());
+        hits.put("byId", byIdHits.sum());
+        hits.put("suggest", suggestHits.sum());
+        return new CatalogMetricsDTO(
+                enabled,
+                s == null ? 0 : s.size(),
+                version.get(),
+                rebuilds.sum(),
+                lastRebuildNanos / 1_000_000.0,
+                patches.sum(),
+                lastPatchNanos / 1_000_000.0,
+                hits);
+    }
+
+    private CatalogSnapshot snapshot() {
+        CatalogSnapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) rebuild();
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    private List<AnimalDTO> load() {
+        return animalRepository.findAll().stream()
+                .map(AnimalDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    private void install(List<AnimalDTO> all, long start) {
+        snapshot = new CatalogSnapshot(all, version.incrementAndGet());
+        lastRebuildNanos = System.nanoTime() - start;
+        rebuilds.increment();
+    }
+
+    private static boolean sameRows(CatalogSnapshot s, List<AnimalDTO> all) {
+        if (s.size() != all.size()) return false;
+        for (AnimalDTO a : all) {
+            if (!a.equals(s.byId(a.getId()))) return false;
+        }
+        return true;
+    }
+
+    private static List<AnimalDTO> narrower(List<AnimalDTO> current,
+                                            Map<String, List<AnimalDTO>> index,
+                                            String value) {
+        if (value == null) return current;
+        List<AnimalDTO> hit = index.getOrDefault(CatalogSnapshot.lower(value), List.of());
+        return hit.size() < current.size() ? hit : current;
+    }
+
+    private static List<AnimalDTO> ordered(CatalogSnapshot s, Sort sort) {
+        return isNameOrder(sort) ? s.byName : s.ordered(sort, comparator(sort));
+    }
+
+    private static AnimalDTO probe(Map<String, Object> key) {
+        return AnimalDTO.builder()
+                .id((Long) key.get("id"))
+                .name((String) key.get("name"))
+                .category((String) key.get("category"))
+                .dietType((String) key.get("dietType"))
+                .habitat((String) key.get("habitat"))
+                .averageWeight((Double) key.get("averageWeight"))
+                .averageAge((Double) key.get("averageAge"))
+                .build();
+    }
+
+    private static boolean matches(String actual, String expected) {
+        return expected == null || (actual != null && actual.equalsIgnoreCase(expected));
+    }
+
+    private static boolean isNameOrder(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        return !orders.isEmpty()
+                && orders.get(0).getProperty().equals("name") && orders.get(0).isAscending()
+                && (orders.size() == 1 || (orders.size() == 2
+                        && orders.get(1).getProperty().equals("id") && orders.get(1).isAscending()));
+    }
+
+    /**
+     * Strings compare case-insensitively, as the SQL path's collation does, so
+     * both paths page alike. Id breaks the remaining ties, which makes the
+     * order total, as the keyset binary search in {@link #listAfter} needs.
+     */
+    @SuppressWarnings("unchecked")
+    private static Comparator<AnimalDTO> comparator(Sort sort) {
+        Comparator<AnimalDTO> cmp = null;
+        for (Sort.Order order : sort) {
+            Comparator<AnimalDTO> by = Comparator.comparing(accessor(order.getProperty()),
+                    Comparator.nullsFirst(valueOrder(order.getProperty())));
+            if (order.isDescending()) by = by.reversed();
+            cmp = cmp == null ? by : cmp.thenComparing(by);
+        }
+        if (cmp == null) return CatalogSnapshot.NAME_ORDER;
+        return sort.getOrderFor("id") != null ? cmp
+                : cmp.thenComparing(AnimalDTO::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    private static Class<?> keyType(String property) {
+        switch (property) {
+            case "id":            return Long.class;
+            case "averageWeight":
+            case "averageAge":    return Double.class;
+            default:              return String.class;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Comparable> valueOrder(String property) {
+        switch (property) {
+            case "id":
+            case "averageWeight":
+            case "averageAge":    return Comparator.naturalOrder();
+            default:              return (Comparator) String.CASE_INSENSITIVE_ORDER;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<AnimalDTO, Comparable> accessor(String property) {
+        switch (property) {
+            case "id":            return AnimalDTO::getId;
+            case "category":      return AnimalDTO::getCategory;
+            case "dietType":      return AnimalDTO::getDietType;
+            case "habitat":       return AnimalDTO::getHabitat;
+            case "averageWeight": return AnimalDTO::getAverageWeight;
+            case "averageAge":    return AnimalDTO::getAverageAge;
+            default:              return AnimalDTO::getName;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package animalservice.service.catalog;
+
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.domain.dto.SuggestionDTO;
+import org.springframework.data.domain.Sort;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable, fully indexed copy of the animal table. Every change builds a
+ * new instance from the changed rows and swaps it in atomically, so readers
+ * never lock. Other sort orders are built on first use and kept for the
+ * life of the snapshot, a few at most.
+ */
+final class CatalogSnapshot {
+
+    /**
+     * Case-insensitive like the default MySQL collation, so keyset cursors
+     * from the catalog and from SQL agree; id breaks ties.
+     */
+    static final Comparator<AnimalDTO> NAME_ORDER = Comparator
+            .comparing(AnimalDTO::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(AnimalDTO::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /** Sort orders kept besides the name order */
+    static final int MAX_ORDERINGS = 4;
+
+    final long version;
+    private final Map<Long, AnimalDTO> byId;
+    /** All rows in name order */
+    final List<AnimalDTO> byName;
+    /** Substring search over the lower-cased names and categories, by position in {@link #byName} */
+    final TrigramIndex searchIndex;
+    /** Prefix completions over names, categories and habitats */
+    final SuggestTrie suggestions;
+    /** Secondary hash indexes keyed by lower-cased value, each list in name order */
+    final Map<String, List<AnimalDTO>> byCategory;
+    final Map<String, List<AnimalDTO>> byDietType;
+    final Map<String, List<AnimalDTO>> byHabitat;
+    /** Rows in the other sort orders asked for so far, filled in by readers */
+    private final Map<Sort, List<AnimalDTO>> orderings = new ConcurrentHashMap<>();
+
+    CatalogSnapshot(Collection<AnimalDTO> animals, long version) {
+        Map<Long, AnimalDTO> ids = new HashMap<>(animals.size() * 2);
+        animals.forEach(a -> ids.put(a.getId(), a));
+        AnimalDTO[] sorted = ids.values().toArray(new AnimalDTO[0]);
+        Arrays.sort(sorted, NAME_ORDER);
+
+        this.version = version;
+        this.byId = Collections.unmodifiableMap(ids);
+        this.byName = List.of(sorted);
+
+        String[] lowerNames = new String[sorted.length];
+        String[] lowerCategories = new String[sorted.length];
+        for (int pos = 0; pos < sorted.length; pos++) {
+            lowerNames[pos] = lower(sorted[pos].getName());
+            lowerCategories[pos] = lower(sorted[pos].getCategory());
+        }
+        this.searchIndex = new TrigramIndex(lowerNames, lowerCategories);
+        this.suggestions = new SuggestTrie(byName);
+
+        this.byCategory = index(byName, AnimalDTO::getCategory);
+        this.byDietType = index(byName, AnimalDTO::getDietType);
+        this.byHabitat = index(byName, AnimalDTO::getHabitat);
+    }
+
+    CatalogSnapshot withUpsert(AnimalDTO animal, long version) {
+        Map<Long, AnimalDTO> next = new HashMap<>(byId);
+        next.put(animal.getId(), animal);
+        return new CatalogSnapshot(next.values(), version);
+    }
+
+    CatalogSnapshot withRemoval(Long id, long version) {
+        Map<Long, AnimalDTO> next = new HashMap<>(byId);
+        next.remove(id);
+        return new CatalogSnapshot(next.values(), version);
+    }
+
+    AnimalDTO byId(Long id) {
+        return byId.get(id);
+    }
+
+    /**
+     * All rows in {@code sort} order, {@code order} being that sort as a
+     * comparator. Once {@link #MAX_ORDERINGS} are kept, further sorts get a
+     * fresh copy.
+     */
+    List<AnimalDTO> ordered(Sort sort, Comparator<AnimalDTO> order) {
+        List<AnimalDTO> kept = orderings.get(sort);
+        if (kept != null) return kept;
+        AnimalDTO[] sorted = byName.toArray(new AnimalDTO[0]);
+        Arrays.sort(sorted, order);
+        List<AnimalDTO> rows = List.of(sorted);
+        if (orderings.size() < MAX_ORDERINGS) orderings.putIfAbsent(sort, rows);
+        return rows;
+    }
+
+    /** Positions in {@link #byName} of the rows matching {@code term}, best first. */
+    int[] search(String term) {
+        return searchIndex.search(term);
+    }
+
+    /** Up to {@code limit} completions of an already lower-cased {@code prefix}, most common first. */
+    List<SuggestionDTO> suggest(String prefix, int limit) {
+        int[] ranks = suggestions.complete(prefix);
+        List<SuggestionDTO> out = new ArrayList<>(Math.min(limit, ranks.length));
+        for (int i = 0; i < ranks.length && i < limit; i++) {
+            int r = ranks[i];
+            out.add(new SuggestionDTO(suggestions.text(r), SuggestTrie.FIELDS[suggestions.field(r)],
+                    suggestions.count(r)));
+        }
+        return out;
+    }
+
+    int size() {
+        return byName.size();
+    }
+
+    static String lower(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, List<AnimalDTO>> index(List<AnimalDTO> sorted,
+                                                      Function<AnimalDTO, String> key) {
+        Map<String, List<AnimalDTO>> idx = new HashMap<>();
+        for (AnimalDTO a : sorted) {
+            idx.computeIfAbsent(lower(key.apply(a)), k -> new ArrayList<>()).add(a);
+        }
+        idx.replaceAll((k, v) -> List.copyOf(v));
+        return Collections.unmodifiableMap(idx);
+    }
+}
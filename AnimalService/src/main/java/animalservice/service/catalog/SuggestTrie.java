@@ -0,0 +1,263 @@
+package animalservice.service.catalog;
+
+import animalservice.domain.dto.AnimalDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Autocomplete over the distinct species names, categories and habitats of
+ * a snapshot. Every term is inserted under its full lower-cased text and
+ * under each word that starts inside it ("golden eagle" is also reachable
+ * from "eagle"). The trie is stored as flat arrays and each node keeps the
+ * ranks of its best terms, so a lookup is one walk down the prefix with no
+ * subtree traversal. Terms are ranked by how many species
+ * carry them, then name before category before habitat, then alphabetically.
+ */
+final class SuggestTrie {
+
+    /** Ranks kept per node, the most a lookup returns */
+    static final int MAX_RESULTS = 10;
+
+    /** Fields in ranking order, as reported in {@code SuggestionDTO.field} */
+    static final String[] FIELDS = {"species", "category", "habitat"};
+
+    private static final int[] NONE = new int[0];
+
+    /** Terms indexed by rank: 0 is the best completion overall */
+    private final String[] texts;
+    private final byte[] fields;
+    private final int[] counts;
+
+    /** Node 0 is the root; children form a sibling list in ascending label order */
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[][] top;
+
+    SuggestTrie(List<AnimalDTO> rows) {
+        Map<String, Term> terms = new HashMap<>();
+        collect(terms, rows, AnimalDTO::getName, 0);
+        collect(terms, rows, AnimalDTO::getCategory, 1);
+        collect(terms, rows, AnimalDTO::getHabitat, 2);
+
+        List<Term> ranked = new ArrayList<>(terms.values());
+        ranked.sort((a, b) -> compare(a.count, a.field, a.key, b.count, b.field, b.key));
+        this.texts = new String[ranked.size()];
+        this.fields = new byte[ranked.size()];
+        this.counts = new int[ranked.size()];
+        List<Entry> entries = new ArrayList<>();
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            Term t = ranked.get(rank);
+            texts[rank] = t.text;
+            fields[rank] = (byte) t.field;
+            counts[rank] = t.count;
+            entries.add(new Entry(t.key, rank));
+            for (int i = 1; i < t.key.length(); i++) {
+                if (isWordStart(t.key, i)) {
+                    entries.add(new Entry(t.key.substring(i), rank));
+                }
+            }
+        }
+        entries.sort((a, b) -> a.key.compareTo(b.key));
+
+        Builder b = new Builder(entries.size() * 4 + 1);
+        for (Entry e : entries) b.add(e.key, e.rank);
+        b.finish();
+        this.labels = Arrays.copyOf(b.labels, b.size);
+        this.firstChild = Arrays.copyOf(b.firstChild, b.size);
+        this.nextSibling = Arrays.copyOf(b.nextSibling, b.size);
+        this.top = Arrays.copyOf(b.top, b.size);
+    }
+
+    /**
+     * Ranks of the best completions of an already lower-cased {@code prefix},
+     * best first; at most {@link #MAX_RESULTS}.
+     */
+    int[] complete(String prefix) {
+        int node = 0;
+        for (int i = 0; i < prefix.length() && node >= 0; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        return node < 0 ? NONE : top[node];
+    }
+
+    String text(int rank) {
+        return texts[rank];
+    }
+
+    int field(int rank) {
+        return fields[rank];
+    }
+
+    int count(int rank) {
+        return counts[rank];
+    }
+
+    /** Suggestion order: higher count, then field, then key */
+    static int compare(int countA, int fieldA, String keyA, int countB, int fieldB, String keyB) {
+        if (countA != countB) return Integer.compare(countB, countA);
+        if (fieldA != fieldB) return Integer.compare(fieldA, fieldB);
+        return keyA.compareTo(keyB);
+    }
+
+    private static boolean isWordStart(String key, int i) {
+        return !Character.isLetterOrDigit(key.charAt(i - 1)) && Character.isLetterOrDigit(key.charAt(i));
+    }
+
+    private int child(int node, char c) {
+        for (int n = firstChild[node]; n >= 0 && labels[n] <= c; n = nextSibling[n]) {
+            if (labels[n] == c) return n;
+        }
+        return -1;
+    }
+
+    private static void collect(Map<String, Term> terms, List<AnimalDTO> rows,
+                                Function<AnimalDTO, String> value, int field) {
+        for (AnimalDTO a : rows) {
+            String text = value.apply(a);
+            if (text == null || text.isBlank()) continue;
+            text = text.strip();
+            String key = CatalogSnapshot.lower(text);
+            // the display form is the first spelling met, rows being in name order
+            String finalText = text;
+            terms.computeIfAbsent(field + ":" + key, k -> new Term(key, finalText, field)).count++;
+        }
+    }
+
+    private static final class Term {
+        final String key;
+        final String text;
+        final int field;
+        int count;
+
+        Term(String key, String text, int field) {
+            this.key = key;
+            this.text = text;
+            this.field = field;
+        }
+    }
+
+    private record Entry(String key, int rank) {
+    }
+
+    /**
+     * Builds the arrays from keys in ascending order. Only the nodes on the
+     * path of the last key are open; a node is closed once a key diverges
+     * above it, at which point all of its subtree has been seen and its top
+     * list is final. A node with a single child and no term of its own
+     * shares that child's top array instead of copying it.
+     */
+    private static final class Builder {
+        char[] labels;
+        int[] firstChild;
+        int[] nextSibling;
+        int[][] top;
+        int size;
+
+        /** Node ids and collected candidate ranks along the current path, indexed by depth */
+        private int[] path = new int[16];
+        private int[][] pending = new int[16][];
+        private int[] pendingSize = new int[16];
+        private int[] lastChild = new int[16];
+        private int[] children = new int[16];
+        private int depth;
+        private String previous = "";
+
+        Builder(int capacity) {
+            labels = new char[capacity];
+            firstChild = new int[capacity];
+            nextSibling = new int[capacity];
+            top = new int[capacity][];
+            open(newNode('\0'), 0);
+        }
+
+        void add(String key, int rank) {
+            int common = 0;
+            int max = Math.min(key.length(), previous.length());
+            while (common < max && key.charAt(common) == previous.charAt(common)) common++;
+            closeTo(common);
+            for (int d = common; d < key.length(); d++) {
+                int node = newNode(key.charAt(d));
+                int parent = d;
+                if (lastChild[parent] < 0) firstChild[path[parent]] = node;
+                else nextSibling[lastChild[parent]] = node;
+                lastChild[parent] = node;
+                children[parent]++;
+                open(node, d + 1);
+            }
+            offer(key.length(), rank);
+            previous = key;
+        }
+
+        void finish() {
+            closeTo(0);
+            top[0] = finalTop(0);
+        }
+
+        private void closeTo(int keep) {
+            while (depth > keep) {
+                int[] best = finalTop(depth);
+                top[path[depth]] = best;
+                depth--;
+                for (int r : best) offer(depth, r);
+            }
+        }
+
+        private int[] finalTop(int d) {
+            int n = pendingSize[d];
+            if (children[d] == 1 && n <= MAX_RESULTS && top[lastChild[d]] != null
+                    && n == top[lastChild[d]].length) {
+                // nothing but the single child's list flowed in: share it
+                return top[lastChild[d]];
+            }
+            int[] ranks = Arrays.copyOf(pending[d], n);
+            Arrays.sort(ranks);
+            int k = 0;
+            for (int i = 0; i < n && k < MAX_RESULTS; i++) {
+                if (k == 0 || ranks[k - 1] != ranks[i]) ranks[k++] = ranks[i];
+            }
+            return Arrays.copyOf(ranks, k);
+        }
+
+        private void offer(int d, int rank) {
+            if (pendingSize[d] == pending[d].length) pending[d] = Arrays.copyOf(pending[d], pendingSize[d] * 2);
+            pending[d][pendingSize[d]++] = rank;
+        }
+
+        private void open(int node, int d) {
+            if (d == path.length) {
+                int grown = d * 2;
+                path = Arrays.copyOf(path, grown);
+                pending = Arrays.copyOf(pending, grown);
+                pendingSize = Arrays.copyOf(pendingSize, grown);
+                lastChild = Arrays.copyOf(lastChild, grown);
+                children = Arrays.copyOf(children, grown);
+            }
+            depth = d;
+            path[d] = node;
+            if (pending[d] == null) pending[d] = new int[MAX_RESULTS * 2];
+            pendingSize[d] = 0;
+            lastChild[d] = -1;
+            children[d] = 0;
+        }
+
+        private int newNode(char label) {
+            if (size == labels.length) {
+                int grown = size * 2;
+                labels = Arrays.copyOf(labels, grown);
+                firstChild = Arrays.copyOf(firstChild, grown);
+                nextSibling = Arrays.copyOf(nextSibling, grown);
+                top = Arrays.copyOf(top, grown);
+            }
+            labels[size] = label;
+            firstChild[size] = -1;
+            nextSibling[size] = -1;
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package animalservice.service.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram inverted index over the lower-cased name and category of every
+ * snapshot row. A substring query of three or more characters intersects
+ * the posting lists of its trigrams, verifies the few surviving candidates
+ * and ranks them; shorter queries fall back to a scan of the same
+ * pre-lower-cased arrays. Postings hold positions in the snapshot's name
+ * order, so equal matches come out in name order.
+ */
+final class TrigramIndex {
+
+    private static final Postings EMPTY = new Postings(new int[0], 0);
+
+    private final String[] names;
+    private final String[] categories;
+    private final Map<Long, Postings> postings;
+
+    /** Indexes the rows at positions {@code 0..names.length-1} */
+    TrigramIndex(String[] names, String[] categories) {
+        this.names = names;
+        this.categories = categories;
+
+        Map<Long, Postings> building = new HashMap<>();
+        for (int pos = 0; pos < names.length; pos++) {
+            for (long key : trigrams(names[pos], categories[pos])) {
+                Postings list = building.get(key);
+                building.put(key, list == null ? Postings.of(pos) : list.append(pos));
+            }
+        }
+        building.replaceAll((k, list) -> list.trimmed());
+        this.postings = building;
+    }
+
+    /** Positions of the rows whose name or category contains {@code term}, best matches first; ties keep name order. */
+    int[] search(String term) {
+        Postings candidates = term.length() < 3 ? null : candidates(term);
+        int n = candidates == null ? names.length : candidates.size();
+
+        long[] ranked = new long[n];
+        int hits = 0;
+        for (int i = 0; i < n; i++) {
+            int pos = candidates == null ? i : candidates.items()[i];
+            int score = score(pos, term);
+            if (score >= 0) ranked[hits++] = ((long) score << 32) | pos;
+        }
+        Arrays.sort(ranked, 0, hits);
+
+        int[] out = new int[hits];
+        for (int i = 0; i < hits; i++) out[i] = (int) ranked[i];
+        return out;
+    }
+
+    /** Intersection of the posting lists of every trigram in {@code term}. */
+    private Postings candidates(String term) {
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            Postings list = postings.get(key(term, i));
+            if (list == null) return EMPTY;
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        Postings acc = lists.get(0);
+        for (int i = 1; i < lists.size() && acc.size() > 0; i++) {
+            acc = intersect(acc, lists.get(i));
+        }
+        return acc;
+    }
+
+    /**
+     * Lower is better: 0 exact name, 1 name prefix, 2 name word prefix,
+     * 3 name substring, 4 exact category, 5 category prefix, 6 category
+     * substring; -1 when neither field contains the term.
+     */
+    private int score(int pos, String term) {
+        String name = names[pos];
+        int at = name.indexOf(term);
+        if (at == 0) return name.length() == term.length() ? 0 : 1;
+        if (at > 0) {
+            for (int i = at; i >= 0; i = name.indexOf(term, i + 1)) {
+                if (!Character.isLetterOrDigit(name.charAt(i - 1))) return 2;
+            }
+            return 3;
+        }
+        String category = categories[pos];
+        at = category.indexOf(term);
+        if (at == 0) return category.length() == term.length() ? 4 : 5;
+        return at > 0 ? 6 : -1;
+    }
+
+    /** Distinct trigrams of a row, name and category together */
+    private static long[] trigrams(String name, String category) {
+        long[] keys = new long[Math.max(0, name.length() - 2) + Math.max(0, category.length() - 2)];
+        int n = 0;
+        for (int i = 0; i + 3 <= name.length(); i++) keys[n++] = key(name, i);
+        for (int i = 0; i + 3 <= category.length(); i++) keys[n++] = key(category, i);
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || keys[distinct - 1] != keys[i]) keys[distinct++] = keys[i];
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    private static long key(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    private static Postings intersect(Postings a, Postings b) {
+        int[] out = new int[Math.min(a.size(), b.size())];
+        int i = 0, j = 0, k = 0;
+        while (i < a.size() && j < b.size()) {
+            if (a.items()[i] < b.items()[j]) i++;
+            else if (a.items()[i] > b.items()[j]) j++;
+            else {
+                out[k++] = a.items()[i];
+                i++;
+                j++;
+            }
+        }
+        return new Postings(out, k);
+    }
+
+    /** Ascending positions in {@code items[0..size)}; appending reuses the array while it has room. */
+    private record Postings(int[] items, int size) {
+
+        static Postings of(int pos) {
+            int[] items = new int[4];
+            items[0] = pos;
+            return new Postings(items, 1);
+        }
+
+        Postings append(int pos) {
+            int[] into = size < items.length ? items : Arrays.copyOf(items, size * 2);
+            into[size] = pos;
+            return new Postings(into, size + 1);
+        }
+
+        Postings trimmed() {
+            return size == items.length ? this : new Postings(Arrays.copyOf(items, size), size);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package animalservice.service.chart;
+
+import animalservice.repository.AnimalRepository;
+import animalservice.service.catalog.AnimalCatalog;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
+import org.jfree.svg.SVGGraphics2D;
+import org.springframework.stereotype.Service;
+
+import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders species distribution charts and caches the encoded bytes per
+ * catalog version. Any write through AnimalService bumps the version, which
+ * drops every cached image on the next request; until then repeated
+ * requests (including the DOCX export) cost a map lookup.
+ */
+@Service
+public class ChartService {
+
+    public enum Dimension { CATEGORY, DIET, HABITAT }
+
+    public enum Type { BAR, PIE }
+
+    public enum Format { PNG, SVG }
+
+    public static final int MIN_SIZE = 100;
+    public static final int MAX_SIZE = 2000;
+    /** Distinct (dimension, type, format, size) combinations kept per version */
+    private static final int MAX_ENTRIES = 64;
+
+    private record Key(Dimension dimension, Type type, Format format, int width, int height) {
+    }
+
+    private final AnimalRepository animalRepository;
+    private final AnimalCatalog catalog;
+
+    private final Map<Key, byte[]> cache = new ConcurrentHashMap<>();
+    private volatile long cachedVersion = -1;
+
+    public ChartService(AnimalRepository animalRepository, AnimalCatalog catalog) {
+        this.animalRepository = animalRepository;
+        this.catalog = catalog;
+    }
+
+    public byte[] render(Dimension dimension, Type type, Format format, int width, int height) {
+        long version = catalog.version();
+        if (version != cachedVersion) {
+            synchronized (cache) {
+                if (version != cachedVersion) {
+                    cache.clear();
+                    cachedVersion = version;
+                }
+            }
+        }
+        if (cache.size() >= MAX_ENTRIES) cache.clear();
+
+        Key key = new Key(dimension, type, format,
+                clamp(width), clamp(height));
+        return cache.computeIfAbsent(key, this::draw);
+    }
+
+    private byte[] draw(Key key) {
+        JFreeChart chart = chart(key.dimension(), key.type(), counts(key.dimension()));
+        try {
+            if (key.format() == Format.SVG) {
+                SVGGraphics2D g2 = new SVGGraphics2D(key.width(), key.height());
+                chart.draw(g2, new Rectangle2D.Double(0, 0, key.width(), key.height()));
+                return g2.getSVGDocument().getBytes(StandardCharsets.UTF_8);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ChartUtils.writeChartAsPNG(out, chart, key.width(), key.height());
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Chart rendering failed", e);
+        }
+    }
+
+    private List<AnimalRepository.GroupCount> counts(Dimension dimension) {
+        switch (dimension) {
+            case DIET:    return animalRepository.countPerDietType();
+            case HABITAT: return animalRepository.countPerHabitat();
+            default:      return animalRepository.countPerCategory();
+        }
+    }
+
+    private static JFreeChart chart(Dimension dimension, Type type, List<AnimalRepository.GroupCount> counts) {
+        String title;
+        String axis;
+        switch (dimension) {
+            case DIET:    title = "Animale pe tip de dietă"; axis = "Dietă";     break;
+            case HABITAT: title = "Animale pe habitat";      axis = "Habitat";   break;
+            default:      title = "Animale pe categorii";    axis = "Categorie";
+        }
+
+        if (type == Type.PIE) {
+            DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
+            counts.forEach(c -> dataset.setValue(c.getLabel(), c.getTotal()));
+            return ChartFactory.createPieChart(title, dataset);
+        }
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        counts.forEach(c -> dataset.addValue(c.getTotal(), "Count", c.getLabel()));
+        return ChartFactory.createBarChart(title, axis, "Număr", dataset);
+    }
+
+    private static int clamp(int size) {
+        return Math.min(Math.max(size, MIN_SIZE), MAX_SIZE);
+    }
+}
@@ -0,0 +1,346 @@
+package animalservice.service.exporter;
+
+import animalservice.domain.dto.AnimalDTO;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Writes the CSV, JSON, XML and DOCX exports as one ZIP from a single pass
+ * over the rows. The rows pushed into the sink are handed, in
+ * chunks of {@value #CHUNK}, to one writer per format; the writers run
+ * concurrently and spool to temp files, deflating and checksumming as
+ * they go. Each finished file is appended to the ZIP as a raw, already
+ * compressed entry as soon as it is done, so the bundle takes about as long
+ * as the slowest format instead of the sum of all four plus compression.
+ * <p>
+ * The writers of a bundle must all run at once (the reader feeds them in
+ * lock step), so the writer pool is fixed at one thread per format for each
+ * of {@code animal.export.bundle.max-concurrent} bundles and a bundle is
+ * admitted whole or not at all. One that cannot get its writers within
+ * {@code animal.export.bundle.wait-ms} is rejected with a
+ * {@link RejectedExecutionException}; {@link #available()} lets a request
+ * answer 503 before it starts.
+ */
+@Component
+public class BundleExporter implements Exporter {
+    /** Rows per hand-off to the writers */
+    static final int CHUNK = 256;
+    /** Chunks a writer may fall behind the reader before the reader waits for it */
+    static final int QUEUE_CHUNKS = 64;
+
+    /** End-of-rows marker, compared by identity */
+    private static final List<AnimalDTO> END = new ArrayList<>(0);
+
+    private static final MediaType ZIP = MediaType.parseMediaType("application/zip");
+
+    /** The formats bundled; those that are not compressible are stored rather than deflated */
+    private final List<Exporter> parts;
+    private final Path spoolDir;
+    /** One per bundle that may run; holding one guarantees a free writer thread per part */
+    private final Semaphore admissions;
+    private final long waitMillis;
+    private final ThreadPoolExecutor writers;
+
+    public BundleExporter(CsvExporter csvExporter,
+                          JsonExporter jsonExporter,
+                          XmlExporter xmlExporter,
+                          DocxExporter docxExporter,
+                          @Value("${animal.export.bundle.spool-dir:${java.io.tmpdir}/animal-export-bundles}") Path spoolDir,
+                          @Value("${animal.export.bundle.max-concurrent:2}") int maxConcurrent,
+                          @Value("${animal.export.bundle.wait-ms:5000}") long waitMillis) throws IOException {
+        this.parts = List.of(csvExporter, jsonExporter, xmlExporter, docxExporter);
+        this.spoolDir = Files.createDirectories(spoolDir);
+        this.admissions = new Semaphore(maxConcurrent);
+        this.waitMillis = waitMillis;
+        int threads = maxConcurrent * parts.size();
+        // admissions keep the tasks at or below the thread count, so the queue only
+        // holds a writer whose thread is just finishing the previous bundle's
+        this.writers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads),
+                r -> {
+                    Thread t = new Thread(r, "export-bundle");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String name() {
+        return "bundle";
+    }
+
+    @Override
+    public String extension() {
+        return "zip";
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return ZIP;
+    }
+
+    @Override
+    public boolean compressible() {
+        return false;
+    }
+
+    /** Whether a bundle started now would get its writers without waiting */
+    @Override
+    public boolean available() {
+        return admissions.availablePermits() > 0;
+    }
+
+    /**
+     * Starts one writer per format; the rows pushed into the sink are handed to all of them.
+     *
+     * @throws RejectedExecutionException when no writers free up within the wait
+     */
+    @Override
+    public RowSink begin(OutputStream out) throws IOException {
+        try {
+            if (!admissions.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("All bundle writers are busy");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Bundle export interrupted");
+        }
+        return new Bundle(out);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    private final class Bundle implements RowSink {
+        final OutputStream out;
+        final List<Spool> spools = new ArrayList<>(parts.size());
+        final List<Future<Spool>> running = new ArrayList<>(parts.size());
+        final CompletionService<Spool> done = new ExecutorCompletionService<>(writers);
+        List<AnimalDTO> chunk = new ArrayList<>(CHUNK);
+        boolean published;
+        boolean closed;
+
+        Bundle(OutputStream out) throws IOException {
+            this.out = out;
+            try {
+                for (Exporter part : parts) {
+                    Spool spool = new Spool(part, Files.createTempFile(spoolDir, "bundle-", "." + part.extension()));
+                    spools.add(spool);
+                    running.add(done.submit(spool::write));
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void row(AnimalDTO row) {
+            chunk.add(row);
+            if (chunk.size() == CHUNK) {
+                publish(chunk);
+                chunk = new ArrayList<>(CHUNK);
+            }
+        }
+
+        /** Sends the end marker, then appends each file to the zip as its writer finishes. */
+        @Override
+        public void end() throws IOException {
+            if (!chunk.isEmpty()) publish(chunk);
+            publish(END);
+            published = true;
+
+            ZipArchiveOutputStream zip = new ZipArchiveOutputStream(out);
+            for (int i = 0; i < spools.size(); i++) {
+                Spool spool = finished(done);
+                try (InputStream in = Files.newInputStream(spool.file)) {
+                    zip.addRawArchiveEntry(spool.entry(), in);
+                }
+            }
+            zip.finish();
+            zip.flush();
+        }
+
+        /** Releases the writers early when the rows stopped before the end, then waits for them. */
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            if (!published) abort(spools);
+            for (Future<Spool> f : running) {
+                try {
+                    f.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException | CancellationException ignored) {
+                    // already reported, or superseded by the failure being propagated
+                }
+            }
+            spools.forEach(Spool::delete);
+            admissions.release();
+        }
+
+        private void publish(List<AnimalDTO> rows) {
+            try {
+                for (Spool spool : spools) spool.queue.put(rows);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Bundle export interrupted");
+            }
+        }
+    }
+
+    /** The reader is the only producer, so after a clear the end marker always fits. */
+    private static void abort(List<Spool> spools) {
+        for (Spool spool : spools) {
+            spool.queue.clear();
+            spool.queue.offer(END);
+        }
+    }
+
+    private static Spool finished(CompletionService<Spool> done) throws IOException {
+        try {
+            return done.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Bundle export interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Bundle export failed", cause);
+        }
+    }
+
+    /** One writer: its inbound queue and the temp file it writes to */
+    private static final class Spool {
+        final Exporter part;
+        /** Already a zip: storing it again is cheaper than deflating it */
+        final boolean stored;
+        final Path file;
+        final BlockingQueue<List<AnimalDTO>> queue = new ArrayBlockingQueue<>(QUEUE_CHUNKS);
+        final CRC32 crc = new CRC32();
+        long size;
+        boolean ended;
+
+        Spool(Exporter part, Path file) {
+            this.part = part;
+            this.stored = !part.compressible();
+            this.file = file;
+        }
+
+        Spool write() throws IOException {
+            // text compresses ~6x even at the fastest level, which keeps the bundle close to the writers' own time
+            Deflater deflater = stored ? null : new Deflater(Deflater.BEST_SPEED, true);
+            try {
+                OutputStream target = Files.newOutputStream(file);
+                if (deflater != null) target = new DeflaterOutputStream(target, deflater, 64 * 1024);
+                try (OutputStream os = new BufferedOutputStream(new CheckedOutputStream(target, crc), 64 * 1024)) {
+                    part.export(rows(), os);
+                }
+                size = deflater != null ? deflater.getBytesRead() : Files.size(file);
+            } finally {
+                if (deflater != null) deflater.end();
+                // keep consuming so a failed writer never blocks the reader
+                while (!ended) ended = take() == END;
+            }
+            return this;
+        }
+
+        /** Header of the spooled, already compressed data */
+        ZipArchiveEntry entry() throws IOException {
+            ZipArchiveEntry entry = new ZipArchiveEntry("animals." + part.extension());
+            entry.setMethod(stored ? ZipEntry.STORED : ZipEntry.DEFLATED);
+            entry.setTime(System.currentTimeMillis());
+            entry.setSize(size);
+            entry.setCompressedSize(Files.size(file));
+            entry.setCrc(crc.getValue());
+            return entry;
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // temp dir cleanup will get it
+            }
+        }
+
+        private Stream<AnimalDTO> rows() {
+            Iterator<AnimalDTO> it = new Iterator<>() {
+                Iterator<AnimalDTO> chunk = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!chunk.hasNext()) {
+                        if (ended) return false;
+                        List<AnimalDTO> next = take();
+                        if (next == END) {
+                            ended = true;
+                            return false;
+                        }
+                        chunk = next.iterator();
+                    }
+                    return true;
+                }
+
+                @Override
+                public AnimalDTO next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return chunk.next();
+                }
+            };
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it,
+                    Spliterator.ORDERED | Spliterator.NONNULL), false);
+        }
+
+        private List<AnimalDTO> take() {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Bundle export interrupted");
+            }
+        }
+    }
+}
@@ -2,26 +2,47 @@ package animalservice.service.exporter;
 
 import animalservice.domain.dto.AnimalDTO;
 import com.opencsv.CSVWriter;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
 
 @Component
-public class CsvExporter {
-    public byte[] export(List<AnimalDTO> list) {
-        try (var baos = new ByteArrayOutputStream();
-             var osw  = new OutputStreamWriter(baos);
-             var writer = new CSVWriter(osw)) {
-
-            // Header
-            writer.writeNext(new String[]{
-                    "ID", "Name", "Category", "DietType", "Habitat", "AvgWeight", "AvgAge"
-            });
-
-            // Rows
-            for (var a : list) {
+public class CsvExporter implements Exporter {
+    private static final String[] HEADER = {
+            "ID", "Name", "Category", "DietType", "Habitat", "AvgWeight", "AvgAge"
+    };
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Override
+    public String name() {
+        return "csv";
+    }
+
+    @Override
+    public String extension() {
+        return "csv";
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return TEXT_CSV;
+    }
+
+    /** Writes the header now and each row as it arrives. */
+    @Override
+    public RowSink begin(OutputStream out) {
+        var writer = new CSVWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        // Header
+        writer.writeNext(HEADER);
+
+        return new RowSink() {
+            @Override
+            public void row(AnimalDTO a) {
                 writer.writeNext(new String[]{
                         String.valueOf(a.getId()),
                         a.getName(),
@@ -33,10 +54,11 @@ public class CsvExporter {
                 });
             }
 
-            writer.flush();
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("CSV export failed", e);
-        }
+            @Override
+            public void end() throws IOException {
+                // CSVWriter swallows IOExceptions; surface them so a broken download fails loudly
+                if (writer.checkError()) throw writer.getException();
+            }
+        };
     }
 }
@@ -1,45 +1,170 @@
 package animalservice.service.exporter;
 
 import animalservice.domain.dto.AnimalDTO;
-import org.apache.poi.xwpf.usermodel.*;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
-import java.util.List;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+/**
+ * Writes the species table as a .docx without building a POI object model.
+ * The fixed package parts (content types, relationships, styles) come from
+ * {@code classpath:docx/} and are loaded once; only {@code word/document.xml}
+ * is generated, row by row, straight into the zip stream.
+ */
 @Component
-public class DocxExporter {
-    public byte[] export(List<AnimalDTO> list) {
-        try (var doc = new XWPFDocument();
-             var baos = new ByteArrayOutputStream()) {
+public class DocxExporter implements Exporter {
+    private static final String W = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String[] HEADER = {
+            "ID", "Name", "Category", "DietType", "Habitat", "AvgWeight", "AvgAge"
+    };
+    private static final MediaType DOCX = MediaType.parseMediaType(
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
+    /** Rows written between explicit flushes to the underlying stream */
+    static final int FLUSH_EVERY = 200;
+
+    private final XMLOutputFactory factory = XMLOutputFactory.newFactory();
+    /** zip entry name → template bytes */
+    private final Map<String, byte[]> template = new LinkedHashMap<>();
+
+    public DocxExporter() {
+        template.put("[Content_Types].xml", load("content-types.xml"));
+        template.put("_rels/.rels", load("rels.xml"));
+        template.put("docProps/app.xml", load("app.xml"));
+        template.put("word/_rels/document.xml.rels", load("document-rels.xml"));
+        template.put("word/styles.xml", load("styles.xml"));
+        template.put("word/settings.xml", load("settings.xml"));
+    }
+
+    @Override
+    public String name() {
+        return "doc";
+    }
+
+    @Override
+    public String extension() {
+        return "docx";
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return DOCX;
+    }
+
+    /** Already a zip */
+    @Override
+    public boolean compressible() {
+        return false;
+    }
+
+    /** Writes the template parts and the table header, then streams the rows into {@code word/document.xml}. */
+    @Override
+    public RowSink begin(OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (var part : template.entrySet()) {
+            zip.putNextEntry(new ZipEntry(part.getKey()));
+            zip.write(part.getValue());
+            zip.closeEntry();
+        }
+
+        zip.putNextEntry(new ZipEntry("word/document.xml"));
+        try {
+            XMLStreamWriter w = factory.createXMLStreamWriter(zip, "UTF-8");
+            w.writeStartDocument("UTF-8", "1.0");
+            w.setPrefix("w", W);
+            w.writeStartElement(W, "document");
+            w.writeNamespace("w", W);
+            w.writeStartElement(W, "body");
+            w.writeStartElement(W, "tbl");
+
+            w.writeStartElement(W, "tblPr");
+            w.writeEmptyElement(W, "tblStyle");
+            w.writeAttribute(W, "val", "TableGrid");
+            w.writeEmptyElement(W, "tblW");
+            w.writeAttribute(W, "w", "0");
+            w.writeAttribute(W, "type", "auto");
+            w.writeEndElement();
 
-            XWPFTable table = doc.createTable();
             // header row
-            var hdr = table.getRow(0);
-            hdr.getCell(0).setText("ID");
-            hdr.addNewTableCell().setText("Name");
-            hdr.addNewTableCell().setText("Category");
-            hdr.addNewTableCell().setText("DietType");
-            hdr.addNewTableCell().setText("Habitat");
-            hdr.addNewTableCell().setText("AvgWeight");
-            hdr.addNewTableCell().setText("AvgAge");
-
-            // data rows
-            for (var a : list) {
-                var row = table.createRow();
-                row.getCell(0).setText(String.valueOf(a.getId()));
-                row.getCell(1).setText(a.getName());
-                row.getCell(2).setText(a.getCategory());
-                row.getCell(3).setText(a.getDietType());
-                row.getCell(4).setText(a.getHabitat());
-                row.getCell(5).setText(String.valueOf(a.getAverageWeight()));
-                row.getCell(6).setText(String.valueOf(a.getAverageAge()));
+            row(w, HEADER);
+
+            return new RowSink() {
+                int n;
+
+                @Override
+                public void row(AnimalDTO a) throws IOException {
+                    try {
+                        DocxExporter.row(w, String.valueOf(a.getId()),
+                                a.getName(),
+                                a.getCategory(),
+                                a.getDietType(),
+                                a.getHabitat(),
+                                String.valueOf(a.getAverageWeight()),
+                                String.valueOf(a.getAverageAge()));
+                        if (++n % FLUSH_EVERY == 0) w.flush();
+                    } catch (XMLStreamException e) {
+                        throw new IOException(e);
+                    }
+                }
+
+                @Override
+                public void end() throws IOException {
+                    try {
+                        w.writeEndElement(); // tbl
+                        w.writeEmptyElement(W, "p");
+                        w.writeEndElement(); // body
+                        w.writeEndElement(); // document
+                        w.writeEndDocument();
+                        w.flush();
+                        w.close();
+                    } catch (XMLStreamException e) {
+                        throw new IOException(e);
+                    }
+
+                    zip.closeEntry();
+                    zip.finish();
+                    zip.flush();
+                }
+            };
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void row(XMLStreamWriter w, String... cells) throws XMLStreamException {
+        w.writeStartElement(W, "tr");
+        for (String cell : cells) {
+            w.writeStartElement(W, "tc");
+            w.writeStartElement(W, "p");
+            if (cell != null) {
+                w.writeStartElement(W, "r");
+                w.writeStartElement(W, "t");
+                w.writeCharacters(cell);
+                w.writeEndElement();
+                w.writeEndElement();
             }
+            w.writeEndElement();
+            w.writeEndElement();
+        }
+        w.writeEndElement();
+    }
 
-            doc.write(baos);
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("DOCX export failed", e);
+    private static byte[] load(String name) {
+        try (InputStream in = DocxExporter.class.getResourceAsStream("/docx/" + name)) {
+            if (in == null) throw new IllegalStateException("Missing DOCX template part: " + name);
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 }
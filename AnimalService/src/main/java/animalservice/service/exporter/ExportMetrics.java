@@ -0,0 +1,80 @@
+package animalservice.service.exporter;
+
+import animalservice.domain.dto.AnimalDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Rows, bytes and duration of every export that is generated, tagged with
+ * the exporter's name: {@code zoo.export.rows}, {@code zoo.export.bytes}
+ * and the {@code zoo.export} timer, which also carries {@code outcome} and
+ * {@code exception}. Downloads answered from the artifact store do not run
+ * an exporter and are only seen by {@code http.server.requests}.
+ */
+@Component
+public class ExportMetrics {
+
+    private final MeterRegistry registry;
+
+    public ExportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void export(Exporter exporter, Stream<AnimalDTO> rows, OutputStream out) {
+        String format = exporter.name();
+        Counter rowCount = Counter.builder("zoo.export.rows")
+                .description("Rows written by exports")
+                .tag("format", format)
+                .register(registry);
+        Counter byteCount = Counter.builder("zoo.export.bytes")
+                .description("Bytes written by exports, before any transfer encoding")
+                .baseUnit("bytes")
+                .tag("format", format)
+                .register(registry);
+
+        Timer.Sample sample = Timer.start(registry);
+        Throwable failure = null;
+        try {
+            exporter.export(rows.peek(r -> rowCount.increment()), new Counting(out, byteCount));
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("zoo.export")
+                    .description("Time to generate an export")
+                    .tag("format", format)
+                    .tag("outcome", failure == null ? "success" : "failure")
+                    .tag("exception", failure == null ? "none" : failure.getClass().getSimpleName())
+                    .register(registry));
+        }
+    }
+
+    /** Counts what passes through; the exporters write in buffered chunks, so one increment per write is cheap. */
+    private static final class Counting extends FilterOutputStream {
+        private final Counter bytes;
+
+        Counting(OutputStream out, Counter bytes) {
+            super(out);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytes.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes.increment(len);
+        }
+    }
+}
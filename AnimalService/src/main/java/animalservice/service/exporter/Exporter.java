@@ -0,0 +1,61 @@
+package animalservice.service.exporter;
+
+import animalservice.domain.dto.AnimalDTO;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * One species export format. A document is written incrementally:
+ * {@link #begin} writes whatever comes before the rows and returns the
+ * {@link RowSink} the rows are pushed into, one at a time, and
+ * {@link RowSink#end()} completes it. Exporters are Spring beans collected
+ * by {@link ExporterRegistry}, so adding a format means adding a bean.
+ */
+public interface Exporter {
+
+    /** The {@code format} request value, lower case and unique among exporters */
+    String name();
+
+    String extension();
+
+    MediaType mediaType();
+
+    /** False when the output is compressed already and gzip would not shrink it */
+    default boolean compressible() {
+        return true;
+    }
+
+    /** False while a document started now would have to wait for, or be refused, the resources it needs */
+    default boolean available() {
+        return true;
+    }
+
+    /** Starts a document on {@code out}, which is never closed by the exporter or its sink. */
+    RowSink begin(OutputStream out) throws IOException;
+
+    /** Writes {@code rows} as one complete document. */
+    default void export(Stream<AnimalDTO> rows, OutputStream out) {
+        try (RowSink sink = begin(out)) {
+            for (Iterator<AnimalDTO> it = rows.iterator(); it.hasNext(); ) {
+                sink.row(it.next());
+            }
+            sink.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(name().toUpperCase(Locale.ROOT) + " export failed", e);
+        }
+    }
+
+    default byte[] export(List<AnimalDTO> list) {
+        var baos = new ByteArrayOutputStream();
+        export(list.stream(), baos);
+        return baos.toByteArray();
+    }
+}
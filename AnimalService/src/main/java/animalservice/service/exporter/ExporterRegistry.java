@@ -0,0 +1,76 @@
+package animalservice.service.exporter;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/** Every {@link Exporter} bean, looked up by format name or by media type. */
+@Component
+public class ExporterRegistry {
+    /** Served when the request names no format, or one that does not exist */
+    public static final String DEFAULT = "csv";
+
+    private final Map<String, Exporter> exporters = new LinkedHashMap<>();
+
+    public ExporterRegistry(List<Exporter> exporters) {
+        for (Exporter e : exporters) {
+            Exporter previous = this.exporters.put(e.name(), e);
+            if (previous != null) {
+                throw new IllegalStateException("Two exporters named " + e.name() + ": "
+                        + previous.getClass().getName() + ", " + e.getClass().getName());
+            }
+        }
+        if (!this.exporters.containsKey(DEFAULT)) throw new IllegalStateException("No " + DEFAULT + " exporter");
+    }
+
+    public Collection<Exporter> all() {
+        return Collections.unmodifiableCollection(exporters.values());
+    }
+
+    public Optional<Exporter> byName(String name) {
+        if (name == null) return Optional.empty();
+        return Optional.ofNullable(exporters.get(name.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    /** The exporter producing {@code type}, or one of the types it stands for when it is a range like {@code text/*} */
+    public Optional<Exporter> byMediaType(MediaType type) {
+        for (Exporter e : exporters.values()) {
+            if (type.equalsTypeAndSubtype(e.mediaType())) return Optional.of(e);
+        }
+        if (type.isWildcardSubtype()) {
+            return exporters.values().stream().filter(e -> type.includes(e.mediaType())).findFirst();
+        }
+        return Optional.empty();
+    }
+
+    /** By name, falling back to CSV like the {@code format} parameter always has. */
+    public Exporter resolve(String name) {
+        return byName(name).orElseGet(() -> exporters.get(DEFAULT));
+    }
+
+    /**
+     * An explicit {@code name} wins; without one, the most preferred type of
+     * {@code accept} that has an exporter. A client that accepts anything
+     * ({@code *}{@code /*}, which browsers always send) gets the default, so
+     * an {@code application/xml} a browser lists first does not change it.
+     */
+    public Exporter resolve(String name, List<MediaType> accept) {
+        if (name != null) return resolve(name);
+        if (accept.stream().anyMatch(MediaType::isWildcardType)) return exporters.get(DEFAULT);
+        return accept.stream()
+                .filter(t -> t.getQualityValue() > 0)
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .map(this::byMediaType)
+                .flatMap(Optional::stream)
+                .findFirst()
+                .orElseGet(() -> exporters.get(DEFAULT));
+    }
+}
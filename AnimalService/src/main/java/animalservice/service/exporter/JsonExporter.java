@@ -1,20 +1,78 @@
 package animalservice.service.exporter;
 
 import animalservice.domain.dto.AnimalDTO;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 
 @Component
-public class JsonExporter {
+public class JsonExporter implements Exporter {
+    /** Rows written between explicit flushes to the underlying stream */
+    static final int FLUSH_EVERY = 500;
+
     private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectWriter rowWriter = mapper.writerFor(AnimalDTO.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    @Override
+    public String name() {
+        return "json";
+    }
+
+    @Override
+    public String extension() {
+        return "json";
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return MediaType.APPLICATION_JSON;
+    }
+
+    @Override
+    public RowSink begin(OutputStream out) throws IOException {
+        return begin(out, false);
+    }
+
+    /**
+     * Writes rows one at a time through a {@link JsonGenerator}, either as a
+     * single JSON array or, with {@code ndjson}, as one object per line.
+     * Output is flushed every {@value #FLUSH_EVERY} rows so the first bytes
+     * leave immediately.
+     */
+    RowSink begin(OutputStream out, boolean ndjson) throws IOException {
+        JsonGenerator gen = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setRootValueSeparator(null);
+        if (!ndjson) gen.writeStartArray();
+
+        return new RowSink() {
+            int n;
+
+            @Override
+            public void row(AnimalDTO row) throws IOException {
+                rowWriter.writeValue(gen, row);
+                if (ndjson) gen.writeRaw('\n');
+                if (++n % FLUSH_EVERY == 0) gen.flush();
+            }
+
+            @Override
+            public void end() throws IOException {
+                if (!ndjson) gen.writeEndArray();
+                gen.flush();
+            }
 
-    public byte[] export(List<AnimalDTO> list) {
-        try {
-            return mapper.writeValueAsBytes(list);
-        } catch (Exception e) {
-            throw new RuntimeException("JSON export failed", e);
-        }
+            @Override
+            public void close() throws IOException {
+                gen.close();
+            }
+        };
     }
 }
@@ -0,0 +1,38 @@
+package animalservice.service.exporter;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/** One JSON object per line, through the same generator as {@link JsonExporter}. */
+@Component
+public class NdjsonExporter implements Exporter {
+
+    private final JsonExporter jsonExporter;
+
+    public NdjsonExporter(JsonExporter jsonExporter) {
+        this.jsonExporter = jsonExporter;
+    }
+
+    @Override
+    public String name() {
+        return "ndjson";
+    }
+
+    @Override
+    public String extension() {
+        return "ndjson";
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return MediaType.APPLICATION_NDJSON;
+    }
+
+    @Override
+    public RowSink begin(OutputStream out) throws IOException {
+        return jsonExporter.begin(out, true);
+    }
+}
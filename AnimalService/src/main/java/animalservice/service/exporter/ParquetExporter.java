@@ -0,0 +1,390 @@
+package animalservice.service.exporter;
+
+import animalservice.domain.dto.AnimalDTO;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the species table as an Apache Parquet file, for analytics tools
+ * that would otherwise re-parse the CSV. Rows are buffered into row groups
+ * of {@value #ROW_GROUP_ROWS} and each group is written as soon as it is
+ * full, so heap use is bounded by one group whatever the row count. Every
+ * column chunk is a single GZIP-compressed data page with min/max
+ * statistics; the weights and ages are typed DOUBLE columns and the low
+ * cardinality columns (category, diet type, habitat) are dictionary
+ * encoded. Only the small part of the format needed here is implemented,
+ * which keeps parquet-java and its Hadoop dependencies off the classpath.
+ */
+@Component
+public class ParquetExporter implements Exporter {
+    /** Rows per row group */
+    static final int ROW_GROUP_ROWS = 65_536;
+    /** Above this the dictionary stops paying off and the chunk is written plain (parquet-java's default) */
+    static final int MAX_DICTIONARY_BYTES = 1024 * 1024;
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    private static final String CREATED_BY = "animalservice";
+    private static final MediaType PARQUET = MediaType.parseMediaType("application/vnd.apache.parquet");
+
+    // parquet.thrift enum values
+    private static final int TYPE_INT64 = 2;
+    private static final int TYPE_DOUBLE = 5;
+    private static final int TYPE_BYTE_ARRAY = 6;
+    private static final int CONVERTED_UTF8 = 0;
+    private static final int REPETITION_OPTIONAL = 1;
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_RLE = 3;
+    private static final int ENCODING_RLE_DICTIONARY = 8;
+    private static final int CODEC_GZIP = 2;
+    private static final int PAGE_DATA = 0;
+    private static final int PAGE_DICTIONARY = 2;
+
+    private enum Kind { INT64, DOUBLE, STRING, DICTIONARY }
+
+    private record Column(String name, Kind kind, Function<AnimalDTO, Object> value) {
+        int physicalType() {
+            return switch (kind) {
+                case INT64 -> TYPE_INT64;
+                case DOUBLE -> TYPE_DOUBLE;
+                default -> TYPE_BYTE_ARRAY;
+            };
+        }
+
+        boolean text() {
+            return kind == Kind.STRING || kind == Kind.DICTIONARY;
+        }
+    }
+
+    private static final List<Column> COLUMNS = List.of(
+            new Column("id", Kind.INT64, AnimalDTO::getId),
+            new Column("name", Kind.STRING, AnimalDTO::getName),
+            new Column("category", Kind.DICTIONARY, AnimalDTO::getCategory),
+            new Column("dietType", Kind.DICTIONARY, AnimalDTO::getDietType),
+            new Column("habitat", Kind.DICTIONARY, AnimalDTO::getHabitat),
+            new Column("averageWeight", Kind.DOUBLE, AnimalDTO::getAverageWeight),
+            new Column("averageAge", Kind.DOUBLE, AnimalDTO::getAverageAge));
+
+    @Override
+    public String name() {
+        return "parquet";
+    }
+
+    @Override
+    public String extension() {
+        return "parquet";
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return PARQUET;
+    }
+
+    /** The pages are compressed already */
+    @Override
+    public boolean compressible() {
+        return false;
+    }
+
+    @Override
+    public RowSink begin(OutputStream out) throws IOException {
+        CountingOutputStream file = new CountingOutputStream(out);
+        file.write(MAGIC);
+
+        return new RowSink() {
+            final List<RowGroup> groups = new ArrayList<>();
+            final AnimalDTO[] buffer = new AnimalDTO[ROW_GROUP_ROWS];
+            int n;
+
+            @Override
+            public void row(AnimalDTO row) throws IOException {
+                buffer[n++] = row;
+                if (n == ROW_GROUP_ROWS) {
+                    groups.add(writeRowGroup(buffer, n, file));
+                    n = 0;
+                }
+            }
+
+            @Override
+            public void end() throws IOException {
+                if (n > 0) groups.add(writeRowGroup(buffer, n, file));
+
+                ThriftCompactWriter footer = footer(groups);
+                footer.writeTo(file);
+                int length = footer.size();
+                file.write(new byte[]{(byte) length, (byte) (length >>> 8), (byte) (length >>> 16), (byte) (length >>> 24)});
+                file.write(MAGIC);
+                file.flush();
+            }
+        };
+    }
+
+    private record ChunkMeta(Column column, long offset, long dictionaryOffset, long dataOffset,
+                             long uncompressed, long compressed, int rows, boolean dictionary,
+                             long nulls, byte[] min, byte[] max) {
+    }
+
+    private record RowGroup(long offset, int rows, long uncompressed, long compressed, List<ChunkMeta> chunks) {
+    }
+
+    private static RowGroup writeRowGroup(AnimalDTO[] buffer, int rows, CountingOutputStream file) throws IOException {
+        long start = file.count;
+        long uncompressed = 0;
+        List<ChunkMeta> chunks = new ArrayList<>(COLUMNS.size());
+        for (Column column : COLUMNS) {
+            Object[] values = new Object[rows];
+            for (int i = 0; i < rows; i++) values[i] = column.value.apply(buffer[i]);
+            ChunkMeta chunk = writeChunk(column, values, file);
+            chunks.add(chunk);
+            uncompressed += chunk.uncompressed;
+        }
+        Arrays.fill(buffer, 0, rows, null);
+        return new RowGroup(start, rows, uncompressed, file.count - start, chunks);
+    }
+
+    private static ChunkMeta writeChunk(Column column, Object[] values, CountingOutputStream file) throws IOException {
+        long start = file.count;
+
+        // definition levels: 1 for a value, 0 for null (every column is OPTIONAL)
+        RleEncoder levels = new RleEncoder(1);
+        long nulls = 0;
+        Object min = null;
+        Object max = null;
+        for (Object v : values) {
+            levels.write(v == null ? 0 : 1);
+            if (v == null) {
+                nulls++;
+            } else {
+                if (min == null || compare(column, v, min) < 0) min = v;
+                if (max == null || compare(column, v, max) > 0) max = v;
+            }
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] levelBytes = levels.toByteArray();
+        writeIntLe(body, levelBytes.length);
+        body.write(levelBytes);
+
+        long uncompressed = 0;
+        long dictionaryOffset = -1;
+        Dictionary dictionary = column.kind == Kind.DICTIONARY ? dictionaryEncode(values, body) : null;
+        if (dictionary != null) {
+            dictionaryOffset = file.count;
+            uncompressed += writePage(PAGE_DICTIONARY, dictionary.page, dictionary.size, ENCODING_PLAIN, file);
+        } else {
+            for (Object v : values) {
+                if (v != null) writePlain(column, v, body);
+            }
+        }
+        long dataOffset = file.count;
+        uncompressed += writePage(PAGE_DATA, body.toByteArray(), values.length,
+                dictionary != null ? ENCODING_RLE_DICTIONARY : ENCODING_PLAIN, file);
+
+        return new ChunkMeta(column, start, dictionaryOffset, dataOffset, uncompressed, file.count - start,
+                values.length, dictionary != null, nulls, statistic(column, min, true), statistic(column, max, false));
+    }
+
+    /** PLAIN-encoded dictionary page and the number of distinct values in it */
+    private record Dictionary(byte[] page, int size) {
+    }
+
+    /**
+     * Appends the RLE_DICTIONARY-encoded indices of {@code values} to
+     * {@code body} and returns the dictionary, or null,
+     * leaving {@code body} untouched, when the dictionary would be too large.
+     */
+    private static Dictionary dictionaryEncode(Object[] values, ByteArrayOutputStream body) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream();
+        int[] indices = new int[values.length];
+        int n = 0;
+        for (Object v : values) {
+            if (v == null) continue;
+            Integer id = ids.get(v);
+            if (id == null) {
+                id = ids.size();
+                ids.put((String) v, id);
+                writePlain(Kind.STRING, v, dictionary);
+                if (dictionary.size() > MAX_DICTIONARY_BYTES) return null;
+            }
+            indices[n++] = id;
+        }
+        int bitWidth = RleEncoder.bitWidth(Math.max(0, ids.size() - 1));
+        RleEncoder encoder = new RleEncoder(bitWidth);
+        for (int i = 0; i < n; i++) encoder.write(indices[i]);
+        body.write(bitWidth);
+        body.write(encoder.toByteArray());
+        return new Dictionary(dictionary.toByteArray(), ids.size());
+    }
+
+    /** Compresses and writes one page with its header; returns its uncompressed size, header included. */
+    private static long writePage(int type, byte[] data, int values, int encoding,
+                                  CountingOutputStream file) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 8 * 1024)) {
+            gzip.write(data);
+        }
+        ThriftCompactWriter header = new ThriftCompactWriter()
+                .i32(1, type)
+                .i32(2, data.length)
+                .i32(3, compressed.size());
+        if (type == PAGE_DATA) {
+            header.beginStruct(5)
+                    .i32(1, values)
+                    .i32(2, encoding)
+                    .i32(3, ENCODING_RLE)
+                    .i32(4, ENCODING_RLE)
+                    .endStruct();
+        } else {
+            header.beginStruct(7)
+                    .i32(1, values)
+                    .i32(2, encoding)
+                    .endStruct();
+        }
+        header.end();
+        header.writeTo(file);
+        compressed.writeTo(file);
+        return header.size() + (long) data.length;
+    }
+
+    private static ThriftCompactWriter footer(List<RowGroup> groups) {
+        long rows = groups.stream().mapToLong(RowGroup::rows).sum();
+        ThriftCompactWriter w = new ThriftCompactWriter().i32(1, 1);
+
+        w.beginList(2, ThriftCompactWriter.STRUCT, COLUMNS.size() + 1);
+        w.beginStruct().string(4, "animal").i32(5, COLUMNS.size()).endStruct();
+        for (Column c : COLUMNS) {
+            w.beginStruct()
+                    .i32(1, c.physicalType())
+                    .i32(3, REPETITION_OPTIONAL)
+                    .string(4, c.name);
+            if (c.text()) {
+                w.i32(6, CONVERTED_UTF8)
+                        .beginStruct(10).beginStruct(1).endStruct().endStruct();
+            }
+            w.endStruct();
+        }
+        w.i64(3, rows);
+
+        w.beginList(4, ThriftCompactWriter.STRUCT, groups.size());
+        for (RowGroup g : groups) {
+            w.beginStruct().beginList(1, ThriftCompactWriter.STRUCT, g.chunks.size());
+            for (ChunkMeta c : g.chunks) {
+                w.beginStruct().i64(2, c.offset).beginStruct(3)
+                        .i32(1, c.column.physicalType());
+                if (c.dictionary) {
+                    w.beginList(2, ThriftCompactWriter.I32, 3)
+                            .i32Element(ENCODING_PLAIN).i32Element(ENCODING_RLE).i32Element(ENCODING_RLE_DICTIONARY);
+                } else {
+                    w.beginList(2, ThriftCompactWriter.I32, 2)
+                            .i32Element(ENCODING_PLAIN).i32Element(ENCODING_RLE);
+                }
+                w.beginList(3, ThriftCompactWriter.BINARY, 1).stringElement(c.column.name)
+                        .i32(4, CODEC_GZIP)
+                        .i64(5, c.rows)
+                        .i64(6, c.uncompressed)
+                        .i64(7, c.compressed)
+                        .i64(9, c.dataOffset);
+                if (c.dictionary) w.i64(11, c.dictionaryOffset);
+                w.beginStruct(12).i64(3, c.nulls);
+                if (c.max != null) w.binary(5, c.max).binary(6, c.min);
+                w.endStruct();
+                w.endStruct().endStruct();
+            }
+            w.i64(2, g.uncompressed)
+                    .i64(3, g.rows)
+                    .i64(5, g.offset)
+                    .i64(6, g.compressed)
+                    .endStruct();
+        }
+
+        w.string(6, CREATED_BY);
+        // TypeDefinedOrder for every column, so readers trust the min/max statistics
+        w.beginList(7, ThriftCompactWriter.STRUCT, COLUMNS.size());
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            w.beginStruct().beginStruct(1).endStruct().endStruct();
+        }
+        return w.end();
+    }
+
+    private static int compare(Column column, Object a, Object b) {
+        return switch (column.kind) {
+            case INT64 -> Long.compare((Long) a, (Long) b);
+            case DOUBLE -> Double.compare((Double) a, (Double) b);
+            // strings are ordered as unsigned UTF-8 bytes, which matches code point order
+            default -> Arrays.compareUnsigned(((String) a).getBytes(StandardCharsets.UTF_8),
+                    ((String) b).getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    /** PLAIN encoding of a statistic, with zero widened to -0.0 / +0.0 as the spec asks for doubles */
+    private static byte[] statistic(Column column, Object value, boolean min) throws IOException {
+        if (value == null) return null;
+        if (column.kind == Kind.DOUBLE && (Double) value == 0.0) value = min ? -0.0 : 0.0;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8);
+        if (column.text()) out.write(((String) value).getBytes(StandardCharsets.UTF_8));
+        else writePlain(column, value, out);
+        return out.toByteArray();
+    }
+
+    private static void writePlain(Column column, Object value, ByteArrayOutputStream out) throws IOException {
+        writePlain(column.kind, value, out);
+    }
+
+    private static void writePlain(Kind kind, Object value, ByteArrayOutputStream out) throws IOException {
+        switch (kind) {
+            case INT64 -> writeLongLe(out, (Long) value);
+            case DOUBLE -> writeLongLe(out, Double.doubleToLongBits((Double) value));
+            default -> {
+                byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                writeIntLe(out, bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static void writeIntLe(ByteArrayOutputStream out, int v) {
+        out.write(v);
+        out.write(v >>> 8);
+        out.write(v >>> 16);
+        out.write(v >>> 24);
+    }
+
+    private static void writeLongLe(ByteArrayOutputStream out, long v) {
+        writeIntLe(out, (int) v);
+        writeIntLe(out, (int) (v >>> 32));
+    }
+
+    /** Tracks the file offset, which the footer records for every page */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package animalservice.service.exporter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Parquet's RLE / bit-packing hybrid encoding of small non-negative ints,
+ * used for definition levels and dictionary indices. A value repeated at
+ * least eight times becomes a run-length run; everything else is
+ * bit-packed eight values at a time, up to 63 groups per run so the run
+ * header always fits the one byte reserved for it.
+ */
+final class RleEncoder {
+
+    private static final int MAX_GROUPS_PER_RUN = 63;
+
+    private final int bitWidth;
+    private final Buffer out = new Buffer();
+    private final int[] buffered = new int[8];
+    private final byte[] packed;
+    private int bufferedCount;
+    private int previous = -1;
+    private int repeatCount;
+    /** Position of the reserved header byte of the open bit-packed run, or -1 */
+    private int runHeader = -1;
+    private int runGroups;
+
+    RleEncoder(int bitWidth) {
+        this.bitWidth = bitWidth;
+        this.packed = new byte[bitWidth];
+    }
+
+    /** Bits needed for values up to {@code max}, at least one */
+    static int bitWidth(int max) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(max));
+    }
+
+    void write(int value) {
+        if (value == previous) {
+            // eight in a row will certainly be a run-length run: just count
+            if (++repeatCount >= 8) return;
+        } else {
+            if (repeatCount >= 8) writeRleRun();
+            repeatCount = 1;
+            previous = value;
+        }
+        buffered[bufferedCount++] = value;
+        if (bufferedCount == 8) writeBitPackedGroup();
+    }
+
+    byte[] toByteArray() {
+        if (repeatCount >= 8) {
+            writeRleRun();
+        } else if (bufferedCount > 0) {
+            // the reader knows the value count, so padding the last group is harmless
+            Arrays.fill(buffered, bufferedCount, 8, 0);
+            writeBitPackedGroup();
+        }
+        endBitPackedRun();
+        return out.toByteArray();
+    }
+
+    private void writeRleRun() {
+        endBitPackedRun();
+        varint(repeatCount << 1);
+        for (int i = 0, n = (bitWidth + 7) / 8; i < n; i++) out.write(previous >>> (8 * i));
+        repeatCount = 0;
+        // the buffered values were all repeats, now covered by the run
+        bufferedCount = 0;
+    }
+
+    private void writeBitPackedGroup() {
+        if (runGroups == MAX_GROUPS_PER_RUN) endBitPackedRun();
+        if (runHeader < 0) {
+            runHeader = out.size();
+            out.write(0);
+        }
+        Arrays.fill(packed, (byte) 0);
+        int bit = 0;
+        for (int v : buffered) {
+            for (int b = 0; b < bitWidth; b++, bit++) {
+                if ((v >>> b & 1) != 0) packed[bit >>> 3] |= (byte) (1 << (bit & 7));
+            }
+        }
+        out.write(packed, 0, packed.length);
+        bufferedCount = 0;
+        // some of the repeats may just have been packed into this group
+        repeatCount = 0;
+        runGroups++;
+    }
+
+    private void endBitPackedRun() {
+        if (runHeader < 0) return;
+        out.set(runHeader, runGroups << 1 | 1);
+        runHeader = -1;
+        runGroups = 0;
+    }
+
+    private void varint(int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /** A byte buffer whose reserved run headers can be filled in afterwards */
+    private static final class Buffer extends ByteArrayOutputStream {
+        void set(int position, int value) {
+            buf[position] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package animalservice.service.exporter;
+
+import animalservice.domain.dto.AnimalDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/** Receives the rows of one export document, in order; see {@link Exporter}. */
+public interface RowSink extends Closeable {
+
+    void row(AnimalDTO row) throws IOException;
+
+    /** Writes whatever follows the rows and flushes; the target stream stays open. */
+    void end() throws IOException;
+
+    /** Releases what the sink holds; called before {@link #end()}, it abandons the document. */
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,133 @@
+package animalservice.service.exporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Just enough of the Thrift compact protocol to write Parquet page headers
+ * and the file footer: nested structs, lists, i32, i64 and binary fields.
+ * The writer starts inside the top-level struct; {@link #end()} closes it.
+ */
+final class ThriftCompactWriter {
+
+    static final byte I32 = 5;
+    static final byte I64 = 6;
+    static final byte BINARY = 8;
+    static final byte LIST = 9;
+    static final byte STRUCT = 12;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    /** Last field id written at each open struct level */
+    private int[] lastIds = new int[8];
+    private int depth;
+
+    ThriftCompactWriter i32(int id, int value) {
+        field(id, I32);
+        varint(zigzag(value));
+        return this;
+    }
+
+    ThriftCompactWriter i64(int id, long value) {
+        field(id, I64);
+        varint(zigzag(value));
+        return this;
+    }
+
+    ThriftCompactWriter binary(int id, byte[] value) {
+        field(id, BINARY);
+        bytes(value);
+        return this;
+    }
+
+    ThriftCompactWriter string(int id, String value) {
+        return binary(id, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    ThriftCompactWriter beginStruct(int id) {
+        field(id, STRUCT);
+        return push();
+    }
+
+    /** Opens a struct that is a list element, which carries no field header. */
+    ThriftCompactWriter beginStruct() {
+        return push();
+    }
+
+    ThriftCompactWriter endStruct() {
+        out.write(0);
+        depth--;
+        return this;
+    }
+
+    ThriftCompactWriter beginList(int id, byte elementType, int size) {
+        field(id, LIST);
+        if (size < 15) {
+            out.write(size << 4 | elementType);
+        } else {
+            out.write(0xF0 | elementType);
+            varint(size);
+        }
+        return this;
+    }
+
+    ThriftCompactWriter i32Element(int value) {
+        varint(zigzag(value));
+        return this;
+    }
+
+    ThriftCompactWriter stringElement(String value) {
+        bytes(value.getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    /** Closes the top-level struct. */
+    ThriftCompactWriter end() {
+        out.write(0);
+        return this;
+    }
+
+    int size() {
+        return out.size();
+    }
+
+    void writeTo(OutputStream target) throws IOException {
+        out.writeTo(target);
+    }
+
+    private ThriftCompactWriter push() {
+        if (++depth == lastIds.length) lastIds = Arrays.copyOf(lastIds, depth * 2);
+        lastIds[depth] = 0;
+        return this;
+    }
+
+    private void field(int id, byte type) {
+        int delta = id - lastIds[depth];
+        if (delta > 0 && delta <= 15) {
+            out.write(delta << 4 | type);
+        } else {
+            out.write(type);
+            varint(zigzag(id));
+        }
+        lastIds[depth] = id;
+    }
+
+    private void bytes(byte[] value) {
+        varint(value.length);
+        out.write(value, 0, value.length);
+    }
+
+    private void varint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -1,16 +1,27 @@
 package animalservice.service.exporter;
 
 
+import animalservice.domain.dto.DistributionDTO;
+import animalservice.domain.dto.ExtendedStatsDTO;
+import animalservice.domain.dto.GroupStatsDTO;
+import animalservice.domain.dto.HistogramBinDTO;
 import animalservice.domain.dto.StatsDTO;
 import org.apache.poi.xwpf.usermodel.*;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayOutputStream;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
 
 @Component
 public class WordExporter {
     public static byte[] export(StatsDTO stats) {
+        return export(stats, null);
+    }
+
+    /** Same document, followed by the distribution sections when {@code extended} is given. */
+    public static byte[] export(StatsDTO stats, ExtendedStatsDTO extended) {
         try (var doc = new XWPFDocument();
              var baos = new ByteArrayOutputStream()) {
 
@@ -34,6 +45,15 @@ public class WordExporter {
             avgPara.createRun()
                     .setText("Average Age: " + stats.getAvgAge());
 
+            if (extended != null) {
+                createDistributionSection(doc, "Weight per Category (kg)", extended.getPerCategory(), GroupStatsDTO::getWeight);
+                createDistributionSection(doc, "Age per Category (years)", extended.getPerCategory(), GroupStatsDTO::getAge);
+                createDistributionSection(doc, "Weight per Habitat (kg)", extended.getPerHabitat(), GroupStatsDTO::getWeight);
+                createDistributionSection(doc, "Age per Habitat (years)", extended.getPerHabitat(), GroupStatsDTO::getAge);
+                createHistogramSection(doc, "Weight Histogram, all species (kg)", extended.getOverall().getWeight());
+                createHistogramSection(doc, "Age Histogram, all species (years)", extended.getOverall().getAge());
+            }
+
             doc.write(baos);
             return baos.toByteArray();
         } catch (Exception e) {
@@ -55,4 +75,51 @@ public class WordExporter {
             row.getCell(1).setText(String.valueOf(entry.getValue()));
         }
     }
+
+    private static void createDistributionSection(XWPFDocument doc, String title,
+                                                  Map<String, GroupStatsDTO> groups,
+                                                  Function<GroupStatsDTO, DistributionDTO> column) {
+        var p = doc.createParagraph();
+        p.setSpacingBefore(200);
+        p.createRun().setText(title);
+        XWPFTable table = doc.createTable();
+        var hdr = table.getRow(0);
+        hdr.getCell(0).setText("Group");
+        for (String h : new String[]{"Count", "Min", "Max", "Mean", "Std Dev", "P50", "P90"}) {
+            hdr.addNewTableCell().setText(h);
+        }
+        for (var entry : groups.entrySet()) {
+            DistributionDTO d = column.apply(entry.getValue());
+            var row = table.createRow();
+            row.getCell(0).setText(entry.getKey());
+            row.getCell(1).setText(String.valueOf(entry.getValue().getCount()));
+            row.getCell(2).setText(format(d.getMin()));
+            row.getCell(3).setText(format(d.getMax()));
+            row.getCell(4).setText(format(d.getMean()));
+            row.getCell(5).setText(format(d.getStddev()));
+            row.getCell(6).setText(format(d.getQuantiles().get("p50")));
+            row.getCell(7).setText(format(d.getQuantiles().get("p90")));
+        }
+    }
+
+    private static void createHistogramSection(XWPFDocument doc, String title, DistributionDTO d) {
+        var p = doc.createParagraph();
+        p.setSpacingBefore(200);
+        p.createRun().setText(title);
+        XWPFTable table = doc.createTable();
+        var hdr = table.getRow(0);
+        hdr.getCell(0).setText("From");
+        hdr.addNewTableCell().setText("To");
+        hdr.addNewTableCell().setText("Species");
+        for (HistogramBinDTO bin : d.getHistogram()) {
+            var row = table.createRow();
+            row.getCell(0).setText(format(bin.getFrom()));
+            row.getCell(1).setText(format(bin.getTo()));
+            row.getCell(2).setText(String.valueOf(bin.getCount()));
+        }
+    }
+
+    private static String format(Double value) {
+        return value == null ? "" : String.format(Locale.ROOT, "%.2f", value);
+    }
 }
@@ -1,23 +1,92 @@
 package animalservice.service.exporter;
 
 import animalservice.domain.dto.AnimalDTO;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
 
 @Component
-public class XmlExporter {
-    private final XmlMapper mapper = new XmlMapper();
+public class XmlExporter implements Exporter {
+    /** Rows written between explicit flushes to the underlying stream */
+    static final int FLUSH_EVERY = 500;
 
-    public byte[] export(List<AnimalDTO> list) {
+    private final XMLOutputFactory factory = XMLOutputFactory.newFactory();
+
+    @Override
+    public String name() {
+        return "xml";
+    }
+
+    @Override
+    public String extension() {
+        return "xml";
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return MediaType.APPLICATION_XML;
+    }
+
+    /**
+     * Same document XmlMapper produced for the list,
+     * {@code <animals><item>…</item></animals>}, emitted through a StAX
+     * writer one row element at a time.
+     */
+    @Override
+    public RowSink begin(OutputStream out) throws IOException {
         try {
-            // wrap in root element
-            return mapper
-                    .writer().withRootName("animals")
-                    .writeValueAsBytes(list);
-        } catch (Exception e) {
-            throw new RuntimeException("XML export failed", e);
+            XMLStreamWriter w = factory.createXMLStreamWriter(out, "UTF-8");
+            w.writeStartElement("animals");
+
+            return new RowSink() {
+                int n;
+
+                @Override
+                public void row(AnimalDTO a) throws IOException {
+                    try {
+                        w.writeStartElement("item");
+                        field(w, "id", a.getId());
+                        field(w, "name", a.getName());
+                        field(w, "category", a.getCategory());
+                        field(w, "dietType", a.getDietType());
+                        field(w, "habitat", a.getHabitat());
+                        field(w, "averageWeight", a.getAverageWeight());
+                        field(w, "averageAge", a.getAverageAge());
+                        w.writeEndElement();
+                        if (++n % FLUSH_EVERY == 0) w.flush();
+                    } catch (XMLStreamException e) {
+                        throw new IOException(e);
+                    }
+                }
+
+                @Override
+                public void end() throws IOException {
+                    try {
+                        w.writeEndElement();
+                        w.flush();
+                        w.close();
+                    } catch (XMLStreamException e) {
+                        throw new IOException(e);
+                    }
+                }
+            };
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void field(XMLStreamWriter w, String name, Object value) throws XMLStreamException {
+        if (value == null) {
+            w.writeEmptyElement(name);
+            return;
         }
+        w.writeStartElement(name);
+        w.writeCharacters(String.valueOf(value));
+        w.writeEndElement();
     }
 }
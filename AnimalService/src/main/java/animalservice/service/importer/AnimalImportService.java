@@ -0,0 +1,234 @@
+package animalservice.service.importer;
+
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.domain.dto.ImportErrorDTO;
+import animalservice.domain.dto.ImportReportDTO;
+import animalservice.service.catalog.AnimalCatalog;
+import animalservice.service.exporter.Exporter;
+import animalservice.service.stats.AnimalStatsService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk species import. The upload is parsed one record at a time, each
+ * record is validated against the column constraints of {@code Animal}, and
+ * valid rows are inserted {@code animal.import.batch-size} at a time, one
+ * transaction and one JDBC batch per chunk (the pooled {@code animal_seq}
+ * ids make that possible). If the database rejects a chunk, its rows are
+ * retried one by one so the report can name the culprit. The catalog is
+ * rebuilt once at the end instead of being patched per row.
+ */
+@Service
+public class AnimalImportService {
+
+    /** Normalized header/element name to {@code AnimalDTO} property; {@code id} is ignored */
+    private static final Map<String, String> FIELDS = Map.of(
+            "name", "name",
+            "species", "name",
+            "category", "category",
+            "diettype", "dietType",
+            "diet", "dietType",
+            "habitat", "habitat",
+            "averageweight", "averageWeight",
+            "avgweight", "averageWeight",
+            "averageage", "averageAge",
+            "avgage", "averageAge");
+
+    private final TransactionTemplate tx;
+    private final AnimalCatalog catalog;
+    private final AnimalStatsService statsService;
+    private final int batchSize;
+    private final int maxErrors;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AnimalImportService(PlatformTransactionManager transactionManager,
+                               AnimalCatalog catalog,
+                               AnimalStatsService statsService,
+                               @Value("${animal.import.batch-size:500}") int batchSize,
+                               @Value("${animal.import.max-errors:1000}") int maxErrors) {
+        this.tx = new TransactionTemplate(transactionManager);
+        this.catalog = catalog;
+        this.statsService = statsService;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Imports every valid record of {@code in}, read in the layout
+     * {@code format} exports. Each record becomes a new species; ids in the
+     * upload are ignored.
+     *
+     * @throws IllegalArgumentException for formats that cannot be imported
+     */
+    public ImportReportDTO importAll(Exporter format, InputStream in) {
+        long start = System.nanoTime();
+        Run run = new Run();
+        List<Pending> batch = new ArrayList<>(batchSize);
+
+        try (RowSource source = open(format, in)) {
+            Map<String, String> raw;
+            while ((raw = source.next()) != null) {
+                run.rows++;
+                AnimalDTO dto = validate(run, raw);
+                if (dto != null) batch.add(new Pending(run.rows, dto));
+                if (batch.size() == batchSize) {
+                    insert(run, batch);
+                    batch.clear();
+                }
+            }
+            run.complete = true;
+        } catch (IOException e) {
+            run.error(run.rows + 1, null, "Unreadable input: " + e.getMessage());
+        }
+        insert(run, batch);
+
+        // entity listeners saw the inserts of rolled-back chunks too
+        if (run.rolledBack) statsService.reconcile();
+        if (run.imported > 0) catalog.refresh();
+
+        return new ImportReportDTO(
+                format.name(),
+                run.rows,
+                run.imported,
+                run.rejected,
+                run.batches,
+                run.complete,
+                (System.nanoTime() - start) / 1_000_000.0,
+                run.errors,
+                run.errorsTruncated);
+    }
+
+    /** The text formats can be read back; the binary ones (docx, zip, parquet) cannot. */
+    private static RowSource open(Exporter format, InputStream in) throws IOException {
+        switch (format.name()) {
+            case "csv":    return new CsvRowSource(in);
+            case "json":
+            case "ndjson": return new JsonRowSource(in);
+            case "xml":    return new XmlRowSource(in);
+            default:       throw new IllegalArgumentException("Cannot import " + format.name());
+        }
+    }
+
+    private void insert(Run run, List<Pending> batch) {
+        if (batch.isEmpty()) return;
+        run.batches++;
+        try {
+            tx.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (Pending p : batch) entityManager.persist(AnimalDTO.toEntity(p.dto));
+                entityManager.flush();
+                entityManager.clear();
+            });
+            run.imported += batch.size();
+        } catch (RuntimeException chunkFailed) {
+            run.rolledBack = true;
+            for (Pending p : batch) {
+                try {
+                    tx.executeWithoutResult(status -> entityManager.persist(AnimalDTO.toEntity(p.dto)));
+                    run.imported++;
+                } catch (RuntimeException rowFailed) {
+                    run.rejected++;
+                    run.error(p.row, null, "Rejected by the database: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowFailed).getMessage());
+                }
+            }
+        }
+    }
+
+    /** Maps and checks one record; null (with errors recorded) if it cannot be inserted. */
+    private static AnimalDTO validate(Run run, Map<String, String> raw) {
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, String> e : raw.entrySet()) {
+            String property = FIELDS.get(normalize(e.getKey()));
+            if (property == null || e.getValue() == null) continue;
+            String value = e.getValue().strip();
+            // CsvExporter writes missing values as "null"
+            if (!value.isEmpty() && !value.equals("null")) values.put(property, value);
+        }
+
+        int before = run.errorCount;
+        AnimalDTO dto = AnimalDTO.builder()
+                .name(text(run, values, "name", 100))
+                .category(text(run, values, "category", 50))
+                .dietType(text(run, values, "dietType", 50))
+                .habitat(text(run, values, "habitat", 100))
+                .averageWeight(number(run, values, "averageWeight"))
+                .averageAge(number(run, values, "averageAge"))
+                .build();
+        if (run.errorCount > before) {
+            run.rejected++;
+            return null;
+        }
+        return dto;
+    }
+
+    private static String text(Run run, Map<String, String> values, String field, int maxLength) {
+        String value = values.get(field);
+        if (value == null) run.error(run.rows, field, "is required");
+        else if (value.length() > maxLength) run.error(run.rows, field, "is longer than " + maxLength + " characters");
+        return value;
+    }
+
+    private static Double number(Run run, Map<String, String> values, String field) {
+        String value = values.get(field);
+        if (value == null) {
+            run.error(run.rows, field, "is required");
+            return null;
+        }
+        try {
+            double d = Double.parseDouble(value);
+            if (Double.isFinite(d) && d >= 0) return d;
+            run.error(run.rows, field, "must be a non-negative number");
+        } catch (NumberFormatException e) {
+            run.error(run.rows, field, "is not a number: " + value);
+        }
+        return null;
+    }
+
+    /** "DietType", "diet_type" and "averageWeight" all become lower-case letters and digits only */
+    private static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    private record Pending(long row, AnimalDTO dto) {
+    }
+
+    /** Counters and error list of one import */
+    private final class Run {
+        long rows;
+        long imported;
+        long rejected;
+        int batches;
+        boolean complete;
+        boolean rolledBack;
+        int errorCount;
+        boolean errorsTruncated;
+        final List<ImportErrorDTO> errors = new ArrayList<>();
+
+        void error(long row, String field, String message) {
+            errorCount++;
+            if (errors.size() < maxErrors) errors.add(new ImportErrorDTO(row, field, message));
+            else errorsTruncated = true;
+        }
+    }
+}
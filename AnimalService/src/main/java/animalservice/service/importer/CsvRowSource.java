@@ -0,0 +1,50 @@
+package animalservice.service.importer;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/** CSV with a header row, as written by {@code CsvExporter}. */
+final class CsvRowSource implements RowSource {
+
+    private final CSVReader reader;
+    private String[] header;
+
+    CsvRowSource(InputStream in) {
+        this.reader = new CSVReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        try {
+            if (header == null) {
+                header = reader.readNext();
+                if (header == null) return null;
+            }
+            String[] cells;
+            do {
+                cells = reader.readNext();
+                if (cells == null) return null;
+            } while (cells.length == 1 && cells[0].isBlank());
+
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < Math.min(cells.length, header.length); i++) {
+                row.put(header[i], cells[i]);
+            }
+            return row;
+        } catch (CsvValidationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
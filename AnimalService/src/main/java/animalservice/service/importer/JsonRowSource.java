@@ -0,0 +1,57 @@
+package animalservice.service.importer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A JSON array of objects, as written by {@code JsonExporter}, or the
+ * newline-delimited variant: a plain sequence of top-level objects.
+ */
+final class JsonRowSource implements RowSource {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private Boolean array;
+
+    JsonRowSource(InputStream in) throws IOException {
+        this.parser = FACTORY.createParser(in);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (array == null) {
+            array = token == JsonToken.START_ARRAY;
+            if (array) token = parser.nextToken();
+        }
+        if (token == null || (array && token == JsonToken.END_ARRAY)) return null;
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected one object per species, got " + token);
+        }
+
+        Map<String, String> row = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+            } else {
+                row.put(field, value == JsonToken.VALUE_NULL ? null : parser.getText());
+            }
+        }
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,16 @@
+package animalservice.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Pull parser over an uploaded catalog: hands out one record at a time as
+ * raw field name to text, so memory does not depend on the upload size.
+ * Field names are passed through as written; mapping them is the caller's job.
+ */
+interface RowSource extends Closeable {
+
+    /** The next record, or null at the end of the input. */
+    Map<String, String> next() throws IOException;
+}
@@ -0,0 +1,71 @@
+package animalservice.service.importer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Any {@code <root><row><field>text</field>…</row>…</root>} document, which
+ * covers both {@code XmlExporter} ({@code animals/item}) and the legacy
+ * {@code SingletonMap/animals} layout. DTDs and external entities are refused.
+ */
+final class XmlRowSource implements RowSource {
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final XMLStreamReader reader;
+    private int depth;
+
+    XmlRowSource(InputStream in) throws IOException {
+        try {
+            this.reader = FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        try {
+            Map<String, String> row = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == 2) {
+                        row = new HashMap<>();
+                    } else if (depth == 3) {
+                        // consumes the matching end tag as well
+                        row.put(reader.getLocalName(), reader.getElementText());
+                        depth--;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                    if (depth == 1) return row;
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
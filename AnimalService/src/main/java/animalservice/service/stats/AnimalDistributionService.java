@@ -0,0 +1,152 @@
+package animalservice.service.stats;
+
+import animalservice.domain.dto.DistributionDTO;
+import animalservice.domain.dto.ExtendedStatsDTO;
+import animalservice.domain.dto.GroupStatsDTO;
+import animalservice.domain.dto.HistogramBinDTO;
+import animalservice.repository.AnimalRepository;
+import animalservice.repository.AnimalRepository.GroupAggregate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Extended statistics per category and per habitat. Min/max/mean/stddev come
+ * from two GROUP BY queries; quantiles and histograms from one streamed pass
+ * over four columns that feeds a {@link QuantileSketch} per group. The
+ * overall distribution is the merge of the category sketches, so no row is
+ * read twice. Everything runs in one read-only transaction, so the
+ * aggregates and the sketches see the same rows.
+ */
+@Service
+public class AnimalDistributionService {
+
+    public static final int DEFAULT_BINS = 10;
+    public static final int MAX_BINS = 50;
+
+    private static final double[] QUANTILES = {0.10, 0.25, 0.50, 0.75, 0.90, 0.99};
+
+    private final AnimalRepository animalRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    public AnimalDistributionService(AnimalRepository animalRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.animalRepository = animalRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public ExtendedStatsDTO compute(int bins) {
+        int b = Math.min(Math.max(bins, 1), MAX_BINS);
+        return readOnlyTx.execute(status -> {
+            List<GroupAggregate> perCategory = animalRepository.aggregatePerCategory();
+            List<GroupAggregate> perHabitat = animalRepository.aggregatePerHabitat();
+
+            // SQL groups by the column collation; match labels case-insensitively
+            Map<String, Sketches> categorySketches = new HashMap<>();
+            Map<String, Sketches> habitatSketches = new HashMap<>();
+            try (Stream<AnimalRepository.DistributionRow> rows = animalRepository.streamDistributionRows()) {
+                rows.forEach(r -> {
+                    categorySketches.computeIfAbsent(key(r.getCategory()), k -> new Sketches()).add(r);
+                    habitatSketches.computeIfAbsent(key(r.getHabitat()), k -> new Sketches()).add(r);
+                });
+            }
+
+            Sketches all = new Sketches();
+            categorySketches.values().forEach(all::merge);
+
+            return new ExtendedStatsDTO(
+                    overall(perCategory, all, b),
+                    groups(perCategory, categorySketches, b),
+                    groups(perHabitat, habitatSketches, b));
+        });
+    }
+
+    private static Map<String, GroupStatsDTO> groups(List<GroupAggregate> aggregates,
+                                                     Map<String, Sketches> sketches, int bins) {
+        Map<String, GroupStatsDTO> out = new LinkedHashMap<>();
+        for (GroupAggregate g : aggregates) {
+            Sketches s = sketches.getOrDefault(key(g.getLabel()), new Sketches());
+            out.put(g.getLabel(), new GroupStatsDTO(g.getTotal(),
+                    distribution(g.getTotal(), g.getMinWeight(), g.getMaxWeight(),
+                            g.getSumWeight(), g.getSumSqWeight(), s.weight, bins),
+                    distribution(g.getTotal(), g.getMinAge(), g.getMaxAge(),
+                            g.getSumAge(), g.getSumSqAge(), s.age, bins)));
+        }
+        return out;
+    }
+
+    /** Sums of the per-category aggregates: every species is in exactly one category. */
+    private static GroupStatsDTO overall(List<GroupAggregate> perCategory, Sketches all, int bins) {
+        long count = 0;
+        double sumWeight = 0, sumSqWeight = 0, sumAge = 0, sumSqAge = 0;
+        double minWeight = Double.POSITIVE_INFINITY, maxWeight = Double.NEGATIVE_INFINITY;
+        double minAge = Double.POSITIVE_INFINITY, maxAge = Double.NEGATIVE_INFINITY;
+        for (GroupAggregate g : perCategory) {
+            count += g.getTotal();
+            minWeight = Math.min(minWeight, value(g.getMinWeight()));
+            maxWeight = Math.max(maxWeight, value(g.getMaxWeight()));
+            minAge = Math.min(minAge, value(g.getMinAge()));
+            maxAge = Math.max(maxAge, value(g.getMaxAge()));
+            sumWeight += value(g.getSumWeight());
+            sumSqWeight += value(g.getSumSqWeight());
+            sumAge += value(g.getSumAge());
+            sumSqAge += value(g.getSumSqAge());
+        }
+        return new GroupStatsDTO(count,
+                distribution(count, minWeight, maxWeight, sumWeight, sumSqWeight, all.weight, bins),
+                distribution(count, minAge, maxAge, sumAge, sumSqAge, all.age, bins));
+    }
+
+    private static DistributionDTO distribution(long count, Double min, Double max, Double sum, Double sumSq,
+                                                QuantileSketch sketch, int bins) {
+        if (count == 0 || sketch.count() == 0) {
+            return new DistributionDTO(0, 0, 0, 0, Map.of(), List.of());
+        }
+        double mean = value(sum) / count;
+        double variance = Math.max(0, value(sumSq) / count - mean * mean);
+
+        Map<String, Double> quantiles = new LinkedHashMap<>();
+        for (double q : QUANTILES) {
+            quantiles.put("p" + Math.round(q * 100), sketch.quantile(q));
+        }
+
+        long[] counts = sketch.histogram(bins);
+        double width = (sketch.max() - sketch.min()) / bins;
+        List<HistogramBinDTO> histogram = new ArrayList<>(bins);
+        for (int i = 0; i < bins; i++) {
+            double from = sketch.min() + i * width;
+            double to = i == bins - 1 ? sketch.max() : from + width;
+            histogram.add(new HistogramBinDTO(from, to, counts[i]));
+        }
+
+        return new DistributionDTO(value(min), value(max), mean, Math.sqrt(variance), quantiles, histogram);
+    }
+
+    private static double value(Double d) {
+        return d == null ? 0 : d;
+    }
+
+    private static String key(String label) {
+        return label == null ? "" : label.toLowerCase(Locale.ROOT);
+    }
+
+    /** Weight and age sketch of one group */
+    private static final class Sketches {
+        final QuantileSketch weight = new QuantileSketch();
+        final QuantileSketch age = new QuantileSketch();
+
+        void add(AnimalRepository.DistributionRow r) {
+            if (r.getAverageWeight() != null) weight.add(r.getAverageWeight());
+            if (r.getAverageAge() != null) age.add(r.getAverageAge());
+        }
+
+        void merge(Sketches other) {
+            weight.merge(other.weight);
+            age.merge(other.age);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package animalservice.service.stats;
+
+import animalservice.domain.Animal;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that keeps {@link StatsAccumulator} in step with every
+ * insert, update and delete of an {@link Animal}. Hibernate obtains it
+ * through Spring's bean container, so the accumulator is injected.
+ */
+public class AnimalStatsListener {
+
+    private final StatsAccumulator accumulator;
+
+    public AnimalStatsListener(StatsAccumulator accumulator) {
+        this.accumulator = accumulator;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Animal a) {
+        accumulator.record(a.getId(), AnimalStatsService.contribution(
+                a.getCategory(), a.getDietType(), a.getAverageWeight(), a.getAverageAge()));
+    }
+
+    @PostRemove
+    public void onRemove(Animal a) {
+        accumulator.forget(a.getId());
+    }
+}
@@ -0,0 +1,70 @@
+package animalservice.service.stats;
+
+import animalservice.domain.dto.StatsDTO;
+import animalservice.repository.AnimalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serves {@link StatsDTO} from the incrementally maintained
+ * {@link StatsAccumulator} and periodically reconciles it against the
+ * database, which repairs drift from rolled-back transactions or writes
+ * made outside this instance.
+ */
+@Service
+public class AnimalStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnimalStatsService.class);
+
+    private final AnimalRepository animalRepository;
+    private final StatsAccumulator accumulator;
+
+    public AnimalStatsService(AnimalRepository animalRepository, StatsAccumulator accumulator) {
+        this.animalRepository = animalRepository;
+        this.accumulator = accumulator;
+    }
+
+    public StatsDTO current() {
+        if (!accumulator.isSeeded()) reconcile();
+        return accumulator.snapshot();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${animal.stats.reconcile-interval-ms:300000}",
+               fixedDelayString = "${animal.stats.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        StatsDTO before = accumulator.isSeeded() ? accumulator.snapshot() : null;
+
+        Map<Long, StatsAccumulator.Contribution> rows = new HashMap<>();
+        for (AnimalRepository.StatsRow r : animalRepository.findStatsRows()) {
+            rows.put(r.getId(), contribution(r.getCategory(), r.getDietType(),
+                    r.getAverageWeight(), r.getAverageAge()));
+        }
+        accumulator.reset(rows);
+
+        if (before != null && drifted(before, accumulator.snapshot())) {
+            log.info("Animal stats drifted from the database and were reconciled ({} rows)", rows.size());
+        }
+    }
+
+    private static boolean drifted(StatsDTO a, StatsDTO b) {
+        return !a.getCountPerCategory().equals(b.getCountPerCategory())
+                || !a.getDietDistribution().equals(b.getDietDistribution())
+                || Math.abs(a.getAvgWeight() - b.getAvgWeight()) > 1e-6
+                || Math.abs(a.getAvgAge() - b.getAvgAge()) > 1e-6;
+    }
+
+    static StatsAccumulator.Contribution contribution(String category, String dietType,
+                                                      Double weight, Double age) {
+        return new StatsAccumulator.Contribution(category, dietType,
+                weight == null ? 0 : weight,
+                age == null ? 0 : age);
+    }
+}
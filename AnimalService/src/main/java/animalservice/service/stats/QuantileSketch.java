@@ -0,0 +1,128 @@
+package animalservice.service.stats;
+
+/**
+ * Mergeable quantile sketch for non-negative values with a bounded
+ * relative error (DDSketch style). Each value lands in a logarithmic bucket
+ * {@code ceil(log_gamma(v))}; every value in a bucket is within
+ * {@link #RELATIVE_ACCURACY} of the bucket's representative, so quantiles
+ * read back from the counts carry that error at most. Two sketches merge by
+ * adding their bucket counts, which is exact, so per-group sketches can be
+ * combined into an overall one without a second pass over the rows.
+ */
+final class QuantileSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    /** Values at or below this are counted as zero */
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    /** Bucket counts; {@code counts[i]} holds bucket index {@code offset + i} */
+    private long[] counts = new long[0];
+    private int offset;
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    void add(double value) {
+        if (!(value >= 0)) return; // negatives and NaN are outside the domain
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (value <= MIN_INDEXABLE) {
+            zeroCount++;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+        ensure(index, index);
+        counts[index - offset]++;
+    }
+
+    void merge(QuantileSketch other) {
+        if (other.count == 0) return;
+        if (other.counts.length > 0) {
+            ensure(other.offset, other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return count;
+    }
+
+    /** Value at quantile {@code q} in [0, 1]; NaN when empty. */
+    double quantile(double q) {
+        if (count == 0) return Double.NaN;
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) return Math.max(min, 0);
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) return clamp(value(offset + i));
+        }
+        return max;
+    }
+
+    /**
+     * {@code bins} equal-width bins between the smallest and largest value,
+     * each bucket counted in the bin of its representative value.
+     */
+    long[] histogram(int bins) {
+        long[] out = new long[bins];
+        if (count == 0) return out;
+        double width = (max - min) / bins;
+        out[bin(Math.max(min, 0), width, bins)] += zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) out[bin(clamp(value(offset + i)), width, bins)] += counts[i];
+        }
+        return out;
+    }
+
+    double min() {
+        return min;
+    }
+
+    double max() {
+        return max;
+    }
+
+    private int bin(double value, double width, int bins) {
+        if (width <= 0) return 0;
+        return (int) Math.min(bins - 1, Math.max(0, (value - min) / width));
+    }
+
+    private double clamp(double value) {
+        return Math.min(max, Math.max(min, value));
+    }
+
+    /** Representative of a bucket: equidistant, in relative terms, from both of its bounds */
+    private static double value(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    private void ensure(int lo, int hi) {
+        if (counts.length == 0) {
+            counts = new long[hi - lo + 1];
+            offset = lo;
+            return;
+        }
+        int newLo = Math.min(lo, offset);
+        int newHi = Math.max(hi, offset + counts.length - 1);
+        if (newLo == offset && newHi == offset + counts.length - 1) return;
+        // grow with slack on the side that overflowed so a monotonic stream does not copy on every add
+        if (newLo < offset) newLo = Math.min(newLo, offset - counts.length);
+        else newHi = Math.max(newHi, offset + 2 * counts.length - 1);
+        long[] grown = new long[newHi - newLo + 1];
+        System.arraycopy(counts, 0, grown, offset - newLo, counts.length);
+        counts = grown;
+        offset = newLo;
+    }
+}
@@ -0,0 +1,92 @@
+package animalservice.service.stats;
+
+import animalservice.domain.dto.StatsDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals behind {@link StatsDTO}. Counts and sums live in striped
+ * adders so concurrent writers don't contend, and each row's last known
+ * contribution is remembered so updates and deletes can be reversed.
+ */
+@Component
+public class StatsAccumulator {
+
+    /** What a single animal adds to the totals */
+    public record Contribution(String category, String dietType, double weight, double age) {
+    }
+
+    private static final class Tally {
+        final ConcurrentHashMap<Long, Contribution> byId = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, LongAdder> perCategory = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, LongAdder> perDiet = new ConcurrentHashMap<>();
+        final LongAdder count = new LongAdder();
+        final DoubleAdder weightSum = new DoubleAdder();
+        final DoubleAdder ageSum = new DoubleAdder();
+
+        void apply(Contribution c, int sign) {
+            perCategory.computeIfAbsent(c.category(), k -> new LongAdder()).add(sign);
+            perDiet.computeIfAbsent(c.dietType(), k -> new LongAdder()).add(sign);
+            count.add(sign);
+            weightSum.add(sign * c.weight());
+            ageSum.add(sign * c.age());
+        }
+    }
+
+    private volatile Tally tally = new Tally();
+    private volatile boolean seeded;
+
+    public void record(Long id, Contribution c) {
+        Tally t = tally;
+        Contribution previous = t.byId.put(id, c);
+        if (previous != null) t.apply(previous, -1);
+        t.apply(c, +1);
+    }
+
+    public void forget(Long id) {
+        Tally t = tally;
+        Contribution previous = t.byId.remove(id);
+        if (previous != null) t.apply(previous, -1);
+    }
+
+    /** Replaces all totals with ones rebuilt from authoritative rows. */
+    public void reset(Map<Long, Contribution> rows) {
+        Tally t = new Tally();
+        rows.forEach((id, c) -> {
+            t.byId.put(id, c);
+            t.apply(c, +1);
+        });
+        tally = t;
+        seeded = true;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public StatsDTO snapshot() {
+        Tally t = tally;
+        long count = t.count.sum();
+        StatsDTO stats = new StatsDTO();
+        stats.setCountPerCategory(positive(t.perCategory.entrySet()));
+        stats.setDietDistribution(positive(t.perDiet.entrySet()));
+        stats.setAvgWeight(count == 0 ? 0 : t.weightSum.sum() / count);
+        stats.setAvgAge(count == 0 ? 0 : t.ageSum.sum() / count);
+        return stats;
+    }
+
+    private static Map<String, Long> positive(Collection<Map.Entry<String, LongAdder>> entries) {
+        Map<String, Long> out = new TreeMap<>();
+        for (var e : entries) {
+            long v = e.getValue().sum();
+            if (v > 0) out.put(e.getKey(), v);
+        }
+        return out;
+    }
+}
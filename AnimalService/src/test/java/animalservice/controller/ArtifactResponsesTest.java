@@ -0,0 +1,209 @@
+package animalservice.controller;
+
+import animalservice.service.AnimalExporterService;
+import animalservice.service.AnimalService;
+import animalservice.service.ExportArtifactStore;
+import animalservice.service.ExportCache;
+import animalservice.service.catalog.AnimalCatalog;
+import animalservice.service.exporter.CsvExporter;
+import animalservice.service.exporter.ExporterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Downloads of a stored export through the real controller and responder:
+ * the first request streams and stores it, the rest are served from disk.
+ */
+class ArtifactResponsesTest {
+
+    private static final byte[] CSV = csv();
+
+    @TempDir
+    Path dir;
+
+    private ExportArtifactStore store;
+    private AnimalService animalService;
+    private MockMvc mvc;
+    private String etag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AnimalCatalog catalog = mock(AnimalCatalog.class);
+        when(catalog.version()).thenReturn(7L);
+        animalService = mock(AnimalService.class);
+        doAnswer(call -> {
+            call.<OutputStream>getArgument(2).write(CSV);
+            return null;
+        }).when(animalService).export(any(), isNull(), any(), isNull());
+
+        store = new ExportArtifactStore(dir, 300_000);
+        ExportCache cache = new ExportCache(catalog, 1024);
+        ExportResponder responder = new ExportResponder(animalService, cache, store);
+        mvc = MockMvcBuilders.standaloneSetup(new AnimalExportController(
+                mock(AnimalExporterService.class), new ExporterRegistry(List.of(new CsvExporter())), responder)).build();
+
+        MockHttpServletResponse first = perform(get("/api/animal/export/csv"));
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getContentAsByteArray()).isEqualTo(CSV);
+        etag = first.getHeader(HttpHeaders.ETAG);
+
+        // the gzip variant is built in the background
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (store.find("csv", 7).gzip() == null && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertThat(store.find("csv", 7).gzip()).isNotNull();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void repeatDownloadComesFromDiskWithoutAQuery() throws Exception {
+        MockHttpServletResponse r = perform(get("/api/animal/export/csv"));
+
+        assertThat(r.getStatus()).isEqualTo(200);
+        assertThat(r.getContentAsByteArray()).isEqualTo(CSV);
+        assertThat(r.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(r.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(r.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(r.getContentLengthLong()).isEqualTo(CSV.length);
+        assertThat(r.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        verify(animalService, times(1)).export(any(), isNull(), any(), isNull());
+    }
+
+    @Test
+    void singleRangeIsPartialContent() throws Exception {
+        MockHttpServletResponse r = perform(get("/api/animal/export/csv").header(HttpHeaders.RANGE, "bytes=10-19"));
+
+        assertThat(r.getStatus()).isEqualTo(206);
+        assertThat(r.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/" + CSV.length);
+        assertThat(r.getContentLengthLong()).isEqualTo(10);
+        assertThat(r.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(CSV, 10, 20));
+
+        MockHttpServletResponse suffix = perform(get("/api/animal/export/csv").header(HttpHeaders.RANGE, "bytes=-5"));
+        assertThat(suffix.getStatus()).isEqualTo(206);
+        assertThat(suffix.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(CSV, CSV.length - 5, CSV.length));
+    }
+
+    @Test
+    void rangePastTheEndIsNotSatisfiable() throws Exception {
+        MockHttpServletResponse r = perform(get("/api/animal/export/csv")
+                .header(HttpHeaders.RANGE, "bytes=" + CSV.length + "-"));
+
+        assertThat(r.getStatus()).isEqualTo(416);
+        assertThat(r.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + CSV.length);
+        assertThat(r.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void severalOrMalformedRangesGetTheWholeFile() throws Exception {
+        for (String range : List.of("bytes=0-1,5-6", "pages=1", "bytes=x-y")) {
+            MockHttpServletResponse r = perform(get("/api/animal/export/csv").header(HttpHeaders.RANGE, range));
+            assertThat(r.getStatus()).as(range).isEqualTo(200);
+            assertThat(r.getContentAsByteArray()).as(range).isEqualTo(CSV);
+        }
+    }
+
+    @Test
+    void ifRangeOnlyResumesTheSameRepresentation() throws Exception {
+        MockHttpServletResponse current = perform(get("/api/animal/export/csv")
+                .header(HttpHeaders.RANGE, "bytes=0-3").header(HttpHeaders.IF_RANGE, etag));
+        assertThat(current.getStatus()).isEqualTo(206);
+        assertThat(current.getContentAsByteArray()).isEqualTo(Arrays.copyOf(CSV, 4));
+
+        for (String validator : List.of("\"csv-other-1\"", "W/" + etag, "Tue, 15 Nov 1994 08:12:31 GMT")) {
+            MockHttpServletResponse stale = perform(get("/api/animal/export/csv")
+                    .header(HttpHeaders.RANGE, "bytes=0-3").header(HttpHeaders.IF_RANGE, validator));
+            assertThat(stale.getStatus()).as(validator).isEqualTo(200);
+            assertThat(stale.getContentAsByteArray()).as(validator).isEqualTo(CSV);
+        }
+    }
+
+    @Test
+    void gzipIsServedWhenAcceptedWithItsOwnETag() throws Exception {
+        MockHttpServletResponse r = perform(get("/api/animal/export/csv").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.5"));
+
+        assertThat(r.getStatus()).isEqualTo(200);
+        assertThat(r.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(r.getHeader(HttpHeaders.ETAG)).isEqualTo(ArtifactResponses.gzipTag(etag)).isNotEqualTo(etag);
+        assertThat(r.getContentLengthLong()).isLessThan(CSV.length);
+        assertThat(gunzip(r.getContentAsByteArray())).isEqualTo(CSV);
+
+        // ranges apply to the encoded bytes, and If-Range must name the gzip tag
+        MockHttpServletResponse part = perform(get("/api/animal/export/csv")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.RANGE, "bytes=0-1")
+                .header(HttpHeaders.IF_RANGE, ArtifactResponses.gzipTag(etag)));
+        assertThat(part.getStatus()).isEqualTo(206);
+        assertThat(part.getContentAsByteArray()).containsExactly(0x1f, 0x8b);
+    }
+
+    @Test
+    void gzipIsNotServedWhenRefused() throws Exception {
+        for (String accept : List.of("gzip;q=0", "identity", "*;q=0", "deflate, *;q=0")) {
+            MockHttpServletResponse r = perform(get("/api/animal/export/csv").header(HttpHeaders.ACCEPT_ENCODING, accept));
+            assertThat(r.getHeader(HttpHeaders.CONTENT_ENCODING)).as(accept).isNull();
+            assertThat(r.getContentAsByteArray()).as(accept).isEqualTo(CSV);
+        }
+        MockHttpServletResponse wildcard = perform(get("/api/animal/export/csv").header(HttpHeaders.ACCEPT_ENCODING, "*"));
+        assertThat(wildcard.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    void currentETagOfEitherEncodingIsNotModified() throws Exception {
+        for (String tag : List.of(etag, ArtifactResponses.gzipTag(etag), "W/" + etag, "\"x\", " + etag, "*")) {
+            MockHttpServletResponse r = perform(get("/api/animal/export/csv").header(HttpHeaders.IF_NONE_MATCH, tag));
+            assertThat(r.getStatus()).as(tag).isEqualTo(304);
+            assertThat(r.getContentAsByteArray()).as(tag).isEmpty();
+        }
+        MockHttpServletResponse stale = perform(get("/api/animal/export/csv").header(HttpHeaders.IF_NONE_MATCH, "\"csv-old-1\""));
+        assertThat(stale.getStatus()).isEqualTo(200);
+    }
+
+    /** Performs the request, completing the async dispatch of a streamed body. */
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) result = mvc.perform(asyncDispatch(result)).andReturn();
+        return result.getResponse();
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] csv() {
+        StringBuilder sb = new StringBuilder("id,name,category\n");
+        for (int i = 1; i <= 2000; i++) sb.append(i).append(",Species ").append(i).append(",Mammal\n");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package animalservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportArtifactStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void startupOnlyClearsWhatTheStoreWrote() throws Exception {
+        String hash = "a".repeat(64);
+        Path leftover = Files.writeString(dir.resolve("export-" + hash + ".csv"), "old");
+        Path leftoverGzip = Files.writeString(dir.resolve("export-" + hash + ".csv.gz"), "old");
+        Path leftoverSpool = Files.writeString(dir.resolve("export-spool-123.tmp"), "old");
+        Path foreign = Files.writeString(dir.resolve("notes.txt"), "keep");
+        Path foreignLookalike = Files.writeString(dir.resolve("export-report.csv"), "keep");
+        Path subdir = Files.createDirectories(dir.resolve("export-" + hash + ".csv.d"));
+        Files.writeString(subdir.resolve("inside"), "keep");
+
+        ExportArtifactStore store = new ExportArtifactStore(dir, 0);
+        store.shutdown();
+
+        assertThat(leftover).doesNotExist();
+        assertThat(leftoverGzip).doesNotExist();
+        assertThat(leftoverSpool).doesNotExist();
+        assertThat(foreign).hasContent("keep");
+        assertThat(foreignLookalike).hasContent("keep");
+        assertThat(subdir.resolve("inside")).hasContent("keep");
+    }
+
+    @Test
+    void sweepKeepsReferencedFilesAndDropsSupersededOnes() throws Exception {
+        ExportArtifactStore store = new ExportArtifactStore(dir, 0);
+        Path foreign = Files.writeString(dir.resolve("notes.txt"), "keep");
+
+        capture(store, 1, "first");
+        Path first = store.find("csv", 1).identity().file();
+        store.sweep();
+        assertThat(first).exists();
+
+        capture(store, 2, "second");
+        Path second = store.find("csv", 2).identity().file();
+        assertThat(store.find("csv", 1)).isNull();
+        // the first sweep only notes it, the next one past the (zero) grace period deletes it
+        store.sweep();
+        store.sweep();
+
+        assertThat(first).doesNotExist();
+        assertThat(second).hasContent("second");
+        assertThat(foreign).exists();
+        store.shutdown();
+    }
+
+    @Test
+    void unchangedExportOfANewVersionReusesTheFile() throws Exception {
+        ExportArtifactStore store = new ExportArtifactStore(dir, 0);
+
+        capture(store, 1, "same");
+        store.sweep();
+        capture(store, 2, "same");
+        store.sweep();
+        store.sweep();
+
+        assertThat(store.find("csv", 2).identity().file()).hasContent("same");
+        store.shutdown();
+    }
+
+    private static void capture(ExportArtifactStore store, long version, String content) throws Exception {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        store.capture("csv", version, false, out -> out.write(content.getBytes(StandardCharsets.UTF_8)))
+                .writeTo(response);
+        assertThat(response.toString(StandardCharsets.UTF_8)).isEqualTo(content);
+    }
+}
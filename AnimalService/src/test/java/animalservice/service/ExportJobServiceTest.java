@@ -0,0 +1,92 @@
+package animalservice.service;
+
+import animalservice.domain.dto.ExportJobDTO;
+import animalservice.repository.AnimalRepository;
+import animalservice.service.exporter.Exporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportJobServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private ExportJobService jobs;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AnimalService animals = mock(AnimalService.class);
+        doAnswer(inv -> {
+            inv.<OutputStream>getArgument(2).write("id,name\n1,Owl\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(animals).export(any(), isNull(), any(), any());
+        AnimalRepository repository = mock(AnimalRepository.class);
+        when(repository.count()).thenReturn(1L);
+
+        // a zero TTL: every finished job is due at the first sweep
+        jobs = new ExportJobService(animals, repository, dir, 1, 4, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobs.shutdown();
+    }
+
+    @Test
+    void aFileBeingDownloadedOutlivesItsTtl() throws Exception {
+        ExportJobService.Job job = finished();
+        Path file = job.file();
+
+        try (InputStream in = jobs.download(job).getInputStream()) {
+            Thread.sleep(5);
+            jobs.evictExpired();
+            assertThat(file).exists();
+            assertThat(jobs.find(job.id)).isSameAs(job);
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id,name\n1,Owl\n");
+        }
+
+        // the TTL restarts when the download ends
+        Thread.sleep(5);
+        jobs.evictExpired();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void anEvictedJobCannotBeOpenedAgain() throws Exception {
+        ExportJobService.Job job = finished();
+        var resource = jobs.download(job);
+
+        Thread.sleep(5);
+        jobs.evictExpired();
+
+        assertThat(job.file()).doesNotExist();
+        assertThatThrownBy(resource::getInputStream).isInstanceOf(FileNotFoundException.class);
+    }
+
+    private ExportJobService.Job finished() throws InterruptedException {
+        Exporter csv = mock(Exporter.class);
+        when(csv.name()).thenReturn("csv");
+        when(csv.extension()).thenReturn("csv");
+        ExportJobDTO dto = jobs.submit(csv, null);
+        ExportJobService.Job job = jobs.find(dto.getId());
+        for (int i = 0; i < 500 && job.finishedAt == null; i++) Thread.sleep(10);
+        assertThat(job.state()).isEqualTo(ExportJobService.State.DONE);
+        return job;
+    }
+}
@@ -0,0 +1,78 @@
+package animalservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void everyValueTypeSurvivesTheRoundTrip() {
+        Map<String, Object> after = new LinkedHashMap<>();
+        after.put("name", "Ștrengar Owl");
+        after.put("averageWeight", -0.5);
+        after.put("habitat", null);
+        after.put("id", Long.MAX_VALUE);
+
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor("species,asc;weight,desc", after).encode());
+
+        assertThat(cursor.sort()).isEqualTo("species,asc;weight,desc");
+        assertThat(cursor.after()).containsExactlyEntriesOf(after);
+        assertThat(cursor.after().get("id")).isInstanceOf(Long.class);
+        assertThat(cursor.after().get("averageWeight")).isInstanceOf(Double.class);
+    }
+
+    @Test
+    void tokensAreUrlSafe() {
+        String token = new KeysetCursor("name,asc", Map.of("name", "?>?>?>~~~")).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsWhatEncodeNeverProduces() {
+        String valid = new KeysetCursor("name,asc", Map.of("name", "Owl", "id", 7L)).encode();
+
+        assertMalformed("not base64!");
+        assertMalformed("");
+        assertMalformed(valid.substring(0, valid.length() - 4));
+        assertMalformed(token(out -> {
+            out.writeUTF("name,asc");
+            out.writeByte(1);
+            out.writeUTF("name");
+            out.writeByte('X');
+        }));
+        assertMalformed(token(out -> {
+            out.writeUTF("name,asc");
+            out.writeByte(0);
+            out.writeByte(42);
+        }));
+    }
+
+    private static void assertMalformed(String token) {
+        assertThatThrownBy(() -> KeysetCursor.decode(token))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private interface Writes {
+        void to(DataOutputStream out) throws IOException;
+    }
+
+    private static String token(Writes body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            body.to(out);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+}
@@ -0,0 +1,152 @@
+package animalservice.service;
+
+import animalservice.domain.Animal;
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.domain.dto.CursorPageDTO;
+import animalservice.repository.AnimalRepository;
+import animalservice.service.catalog.AnimalCatalog;
+import animalservice.service.exporter.ExportMetrics;
+import animalservice.service.exporter.ExporterRegistry;
+import animalservice.service.stats.AnimalDistributionService;
+import animalservice.service.stats.AnimalStatsService;
+import animalservice.service.stats.StatsAccumulator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Pages through the same rows with the SQL seek predicate and with the
+ * in-memory catalog; both must hand out every row once, in the same order.
+ * H2 ignores case in comparisons here, like MySQL's default collation.
+ */
+@DataJpaTest
+@Import(StatsAccumulator.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:keyset;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"})
+class KeysetPagingTest {
+
+    private static final String[] SORTS = {
+            "species,asc",
+            "category,desc;species,asc",
+            "averageWeight,desc",
+            "habitat,asc;averageAge,desc",
+            "id,desc"
+    };
+
+    @Autowired
+    private AnimalRepository repository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AnimalService sql;
+    private AnimalService catalog;
+
+    @BeforeEach
+    void setUp() {
+        repository.saveAll(List.of(
+                animal("Owl", "Bird", "Forest", 2.0, 10.0),
+                animal("owl", "bird", "Forest", 2.0, 12.0),
+                animal("OWL", "Bird", "Tundra", 1.5, 10.0),
+                animal("Eagle", "Bird", "Mountain", 5.0, 20.0),
+                animal("Wolf", "Mammal", "Forest", 40.0, 10.0),
+                animal("wolf", "mammal", "Tundra", 40.0, 12.0),
+                animal("Fox", "Mammal", "Forest", 6.0, 10.0),
+                animal("Python", "Reptile", "Jungle", 60.0, 20.0)));
+        sql = service(new AnimalCatalog(repository, transactionManager, false));
+        catalog = service(new AnimalCatalog(repository, transactionManager, true));
+    }
+
+    @Test
+    void rowsTiedOnTheSortKeyAreSplitAcrossPagesById() {
+        List<AnimalDTO> rows = pageThrough(sql, "species,asc", 2);
+
+        assertThat(rows).extracting(AnimalDTO::getName)
+                .containsExactly("Eagle", "Fox", "Owl", "owl", "OWL", "Python", "Wolf", "wolf");
+        assertThat(rows.subList(2, 5)).extracting(AnimalDTO::getId).isSorted();
+    }
+
+    @Test
+    void sqlAndCatalogPageAlike() {
+        for (String sort : SORTS) {
+            for (int limit : new int[]{1, 2, 3, 100}) {
+                List<Long> expected = ids(catalog.listAll(sort));
+                assertThat(ids(pageThrough(sql, sort, limit))).as("sql %s by %d", sort, limit)
+                        .containsExactlyElementsOf(expected);
+                assertThat(ids(pageThrough(catalog, sort, limit))).as("catalog %s by %d", sort, limit)
+                        .containsExactlyElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    void cursorsWithTheWrongKeysOrValueTypesAreRejected() {
+        Map<String, Object> wrongType = new LinkedHashMap<>();
+        wrongType.put("name", 5L);
+        wrongType.put("id", 1L);
+        Map<String, Object> numberAsText = new LinkedHashMap<>();
+        numberAsText.put("name", "Owl");
+        numberAsText.put("id", "1");
+        Map<String, Object> missing = Map.of("name", "Owl");
+        Map<String, Object> nullValue = new LinkedHashMap<>();
+        nullValue.put("name", null);
+        nullValue.put("id", 1L);
+
+        for (Map<String, Object> after : List.of(wrongType, numberAsText, missing, nullValue)) {
+            String cursor = new KeysetCursor("species,asc", after).encode();
+            for (AnimalService service : List.of(sql, catalog)) {
+                assertThatThrownBy(() -> service.listAfter("species,asc", cursor, 2))
+                        .as("%s", after)
+                        .isInstanceOf(IllegalArgumentException.class);
+            }
+        }
+    }
+
+    private static List<AnimalDTO> pageThrough(AnimalService service, String sort, int limit) {
+        List<AnimalDTO> rows = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPageDTO<AnimalDTO> page = service.listAfter(sort, cursor, limit);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(limit);
+            rows.addAll(page.getContent());
+            cursor = page.getNext();
+        } while (cursor != null);
+        return rows;
+    }
+
+    private AnimalService service(AnimalCatalog catalog) {
+        return new AnimalService(repository, catalog, mock(AnimalStatsService.class),
+                mock(AnimalDistributionService.class), mock(AnimalCursorReader.class),
+                mock(ExporterRegistry.class), mock(ExportMetrics.class));
+    }
+
+    private static List<Long> ids(List<AnimalDTO> rows) {
+        return rows.stream().map(AnimalDTO::getId).toList();
+    }
+
+    private static Animal animal(String name, String category, String habitat, double weight, double age) {
+        return Animal.builder()
+                .name(name)
+                .category(category)
+                .dietType("Carnivore")
+                .habitat(habitat)
+                .averageWeight(weight)
+                .averageAge(age)
+                .build();
+    }
+}
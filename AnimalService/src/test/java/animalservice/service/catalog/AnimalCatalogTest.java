@@ -0,0 +1,153 @@
+package animalservice.service.catalog;
+
+import animalservice.domain.Animal;
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.repository.AnimalRepository;
+import animalservice.service.stats.StatsAccumulator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes commit for real here (the test methods run outside a
+ * transaction), so the catalog sees what other transactions would.
+ */
+@DataJpaTest
+@Import(StatsAccumulator.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop"})
+class AnimalCatalogTest {
+
+    @Autowired
+    private AnimalRepository repository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private AnimalCatalog catalog;
+    private Long owlId;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        owlId = repository.save(animal("Owl")).getId();
+        tx = new TransactionTemplate(transactionManager);
+        catalog = new AnimalCatalog(repository, transactionManager, true);
+        catalog.rebuild();
+    }
+
+    @Test
+    void aWriteShowsUpOnceItCommits() {
+        tx.executeWithoutResult(status -> {
+            rename(owlId, "Barn owl");
+            catalog.changed(owlId);
+            assertThat(name(owlId)).contains("Owl");
+        });
+
+        assertThat(name(owlId)).contains("Barn owl");
+    }
+
+    @Test
+    void aRolledBackWriteNeverShowsUp() {
+        long version = catalog.version();
+
+        tx.executeWithoutResult(status -> {
+            rename(owlId, "Barn owl");
+            Long foxId = repository.save(animal("Fox")).getId();
+            catalog.changed(owlId);
+            catalog.changed(foxId);
+            status.setRollbackOnly();
+        });
+
+        assertThat(catalog.list(Sort.by("name"))).extracting(AnimalDTO::getName).containsExactly("Owl");
+        assertThat(catalog.version()).isEqualTo(version);
+    }
+
+    @Test
+    void aLateReloadReadsTheLatestRowNotItsOwn() {
+        // the first writer committed, but its reload runs after the second writer's
+        rename(owlId, "Barn owl");
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> first;
+        try {
+            catalog.changed(owlId);
+            first = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        tx.executeWithoutResult(status -> {
+            rename(owlId, "Snowy owl");
+            catalog.changed(owlId);
+        });
+
+        first.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(name(owlId)).contains("Snowy owl");
+    }
+
+    @Test
+    void deletesAreReloadedToo() {
+        tx.executeWithoutResult(status -> {
+            repository.deleteById(owlId);
+            catalog.changed(owlId);
+        });
+
+        assertThat(catalog.findById(owlId)).isEmpty();
+    }
+
+    @Test
+    void reconcileRepairsWritesTheCatalogWasNotTold() {
+        long version = catalog.version();
+        catalog.reconcile();
+        assertThat(catalog.version()).isEqualTo(version);
+
+        // as another instance or a SQL script would
+        rename(owlId, "Barn owl");
+        Long foxId = repository.save(animal("Fox")).getId();
+        catalog.reconcile();
+
+        assertThat(name(owlId)).contains("Barn owl");
+        assertThat(name(foxId)).contains("Fox");
+        assertThat(catalog.version()).isGreaterThan(version);
+    }
+
+    private void rename(Long id, String name) {
+        Animal a = repository.findById(id).orElseThrow();
+        a.setName(name);
+        repository.save(a);
+    }
+
+    private Optional<String> name(Long id) {
+        return catalog.findById(id).map(AnimalDTO::getName);
+    }
+
+    private static Animal animal(String name) {
+        return Animal.builder()
+                .name(name)
+                .category("Bird")
+                .dietType("Carnivore")
+                .habitat("Forest")
+                .averageWeight(2.0)
+                .averageAge(10.0)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package animalservice.service.catalog;
+
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.domain.dto.SuggestionDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotTest {
+
+    private static final String[] PARTS = {
+            "grey", "Red", "arctic", "african", "giant", "lesser", "spotted", "Golden",
+            "wolf", "fox", "eagle", "owl", "python", "tortoise", "salmon", "beetle"
+    };
+    private static final String[] CATEGORIES = {"Mammal", "bird", "Reptile", "Fish"};
+    private static final String[] HABITATS = {"Forest", "savanna", "Arctic tundra", "River", null};
+    private static final String[] QUERIES = {"", "e", "gr", "wolf", "golden eagle", "ird", "zzz", "a"};
+
+    private static final Sort BY_HABITAT = Sort.by(Sort.Order.asc("habitat"), Sort.Order.asc("id"));
+    private static final Comparator<AnimalDTO> HABITAT_ORDER = Comparator
+            .comparing(AnimalDTO::getHabitat, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(AnimalDTO::getId);
+    private static final Sort BY_WEIGHT = Sort.by(Sort.Order.desc("averageWeight"), Sort.Order.asc("id"));
+    private static final Comparator<AnimalDTO> WEIGHT_ORDER = Comparator
+            .comparing(AnimalDTO::getAverageWeight).reversed()
+            .thenComparing(AnimalDTO::getId);
+
+    @Test
+    void patchesAnswerLikeAFreshBuild() {
+        Random random = new Random(7);
+        Map<Long, AnimalDTO> rows = new HashMap<>();
+        for (long id = 1; id <= 300; id++) rows.put(id, animal(random, id));
+        CatalogSnapshot patched = new CatalogSnapshot(rows.values(), 1);
+        patched.ordered(BY_HABITAT, HABITAT_ORDER);
+        patched.ordered(BY_WEIGHT, WEIGHT_ORDER);
+
+        for (int step = 0; step < 1000; step++) {
+            long id = 1 + random.nextInt(400);
+            if (random.nextInt(4) == 0) {
+                rows.remove(id);
+                patched = patched.withRemoval(id, step);
+            } else {
+                AnimalDTO a = animal(random, id);
+                rows.put(id, a);
+                patched = patched.withUpsert(a, step);
+            }
+            if (step % 250 == 0) assertSameAnswers(patched, new CatalogSnapshot(rows.values(), step));
+        }
+        assertSameAnswers(patched, new CatalogSnapshot(rows.values(), 0));
+    }
+
+    @Test
+    void namesSortCaseInsensitivelyThenById() {
+        CatalogSnapshot s = new CatalogSnapshot(List.of(
+                named(3, "eagle"), named(1, "Eagle"), named(2, "Zebra"), named(4, "apple")), 1);
+
+        assertThat(s.byName).extracting(AnimalDTO::getId).containsExactly(4L, 1L, 3L, 2L);
+
+        s = s.withUpsert(named(5, "EAGLE"), 2).withUpsert(named(0, "zebra"), 3);
+        assertThat(s.byName).extracting(AnimalDTO::getId).containsExactly(4L, 1L, 3L, 5L, 0L, 2L);
+    }
+
+    @Test
+    void orderingsAreKeptUpToALimit() {
+        Random random = new Random(3);
+        List<AnimalDTO> rows = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) rows.add(animal(random, id));
+        CatalogSnapshot s = new CatalogSnapshot(rows, 1);
+
+        List<AnimalDTO> byHabitat = s.ordered(BY_HABITAT, HABITAT_ORDER);
+        assertThat(byHabitat).isSortedAccordingTo(HABITAT_ORDER).hasSize(50);
+        assertThat(s.ordered(BY_HABITAT, HABITAT_ORDER)).isSameAs(byHabitat);
+
+        // one kept already
+        for (int i = 1; i < CatalogSnapshot.MAX_ORDERINGS; i++) {
+            s.ordered(Sort.by("property" + i, "id"), CatalogSnapshot.NAME_ORDER);
+        }
+        Sort extra = Sort.by("averageAge", "id");
+        assertThat(s.ordered(extra, CatalogSnapshot.NAME_ORDER))
+                .isNotSameAs(s.ordered(extra, CatalogSnapshot.NAME_ORDER));
+        assertThat(s.ordered(BY_HABITAT, HABITAT_ORDER)).isSameAs(byHabitat);
+    }
+
+    @Test
+    void removingAnUnknownIdKeepsTheRows() {
+        CatalogSnapshot s = new CatalogSnapshot(List.of(named(1, "Owl")), 1).withRemoval(9L, 2);
+
+        assertThat(s.version).isEqualTo(2);
+        assertThat(s.byName).extracting(AnimalDTO::getName).containsExactly("Owl");
+    }
+
+    private static void assertSameAnswers(CatalogSnapshot patched, CatalogSnapshot fresh) {
+        assertThat(patched.byName).containsExactlyElementsOf(fresh.byName);
+        for (AnimalDTO a : fresh.byName) assertThat(patched.byId(a.getId())).isSameAs(a);
+        assertThat(patched.byCategory).isEqualTo(fresh.byCategory);
+        assertThat(patched.byDietType).isEqualTo(fresh.byDietType);
+        assertThat(patched.byHabitat).isEqualTo(fresh.byHabitat);
+        assertThat(patched.ordered(BY_HABITAT, HABITAT_ORDER))
+                .containsExactlyElementsOf(fresh.ordered(BY_HABITAT, HABITAT_ORDER));
+        assertThat(patched.ordered(BY_WEIGHT, WEIGHT_ORDER))
+                .containsExactlyElementsOf(fresh.ordered(BY_WEIGHT, WEIGHT_ORDER));
+        for (String q : QUERIES) {
+            assertThat(patched.search(q)).as("search %s", q).containsExactly(fresh.search(q));
+            assertThat(keys(patched.suggest(q, SuggestTrie.MAX_RESULTS)))
+                    .as("suggest %s", q)
+                    .containsExactlyElementsOf(keys(fresh.suggest(q, SuggestTrie.MAX_RESULTS)));
+        }
+    }
+
+    /** The display spelling of a term may differ between the two; field, key and count may not */
+    private static List<String> keys(List<SuggestionDTO> suggestions) {
+        List<String> out = new ArrayList<>();
+        for (SuggestionDTO s : suggestions) {
+            out.add(s.getField() + ":" + s.getText().toLowerCase() + ":" + s.getCount());
+        }
+        return out;
+    }
+
+    private static AnimalDTO animal(Random random, long id) {
+        return AnimalDTO.builder()
+                .id(id)
+                .name(PARTS[random.nextInt(8)] + " " + PARTS[8 + random.nextInt(8)]
+                        + (random.nextBoolean() ? "" : " " + random.nextInt(50)))
+                .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                .dietType(random.nextBoolean() ? "Carnivore" : "Herbivore")
+                .habitat(HABITATS[random.nextInt(HABITATS.length)])
+                .averageWeight(random.nextDouble() * 100)
+                .averageAge(random.nextDouble() * 30)
+                .build();
+    }
+
+    private static AnimalDTO named(long id, String name) {
+        return AnimalDTO.builder().id(id).name(name).category("Bird").build();
+    }
+}
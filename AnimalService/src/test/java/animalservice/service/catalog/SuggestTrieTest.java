@@ -0,0 +1,153 @@
+package animalservice.service.catalog;
+
+import animalservice.domain.dto.AnimalDTO;
+import animalservice.domain.dto.SuggestionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SuggestTrieTest {
+
+    private static final List<AnimalDTO> ROWS = List.of(
+            animal(1, "Fox", "Mammal", "Forest"),
+            animal(2, "fox", "Mammal", "Forest"),
+            animal(3, "Frog", "Amphibian", "Forest"),
+            animal(4, "Salmon", "Fish", "River"),
+            animal(5, "Falcon", "Bird", "Fjord"),
+            animal(6, "Golden eagle", "Bird", "Mountain"),
+            animal(7, "Bald eagle", "Bird", "Forest edge"));
+
+    @Test
+    void ranksByCountThenFieldThenText() {
+        List<SuggestionDTO> out = complete(new CatalogSnapshot(ROWS, 1), "f", 10);
+
+        assertThat(out).extracting(SuggestionDTO::getText, SuggestionDTO::getField, SuggestionDTO::getCount)
+                .containsExactly(
+                        tuple("Forest", "habitat", 3L),
+                        tuple("Fox", "species", 2L),
+                        tuple("Falcon", "species", 1L),
+                        tuple("Frog", "species", 1L),
+                        tuple("Fish", "category", 1L),
+                        tuple("Fjord", "habitat", 1L),
+                        tuple("Forest edge", "habitat", 1L));
+    }
+
+    @Test
+    void completesEveryWordOfATerm() {
+        CatalogSnapshot s = new CatalogSnapshot(ROWS, 1);
+
+        assertThat(texts(complete(s, "eag", 10))).containsExactly("Bald eagle", "Golden eagle");
+        assertThat(texts(complete(s, "edge", 10))).containsExactly("Forest edge");
+        assertThat(texts(complete(s, "golden e", 10))).containsExactly("Golden eagle");
+        assertThat(complete(s, "agle", 10)).isEmpty();
+    }
+
+    @Test
+    void tiesAtTheLimitGoAlphabetically() {
+        CatalogSnapshot s = new CatalogSnapshot(ROWS, 1);
+
+        assertThat(texts(complete(s, "f", 4))).containsExactly("Forest", "Fox", "Falcon", "Frog");
+        assertThat(texts(complete(s, "f", 1))).containsExactly("Forest");
+    }
+
+    @Test
+    void shortAndUnknownPrefixes() {
+        CatalogSnapshot s = new CatalogSnapshot(ROWS, 1);
+
+        // the empty prefix completes to the best terms overall
+        assertThat(texts(complete(s, "", 3))).containsExactly("Bird", "Forest", "Fox");
+        assertThat(texts(complete(s, "s", 10))).containsExactly("Salmon");
+        assertThat(complete(s, "zz", 10)).isEmpty();
+        assertThat(complete(s, "foxes", 10)).isEmpty();
+    }
+
+    @Test
+    void foldsCaseButNotDiacritics() {
+        CatalogSnapshot s = new CatalogSnapshot(List.of(
+                animal(1, "Șoim călător", "Păsări", "Munte"),
+                animal(2, "ȘOIM CĂLĂTOR", "păsări", "Munte")), 1);
+
+        // the display spelling is the first met in name order
+        assertThat(complete(s, "ȘO", 10))
+                .extracting(SuggestionDTO::getText, SuggestionDTO::getCount)
+                .containsExactly(tuple("Șoim călător", 2L));
+        assertThat(texts(complete(s, "CĂL", 10))).containsExactly("Șoim călător");
+        assertThat(texts(complete(s, "pă", 10))).containsExactly("Păsări");
+        assertThat(complete(s, "so", 10)).isEmpty();
+        assertThat(complete(s, "cal", 10)).isEmpty();
+    }
+
+    @Test
+    void followsUpsertsAndRemovals() {
+        CatalogSnapshot s = new CatalogSnapshot(ROWS, 1)
+                .withUpsert(animal(8, "Fennec fox", "Mammal", "Desert"), 2)
+                .withUpsert(animal(3, "Tree frog", "Amphibian", "Rainforest"), 3)
+                .withRemoval(1L, 4)
+                .withRemoval(2L, 5);
+
+        assertThat(complete(s, "f", 10))
+                .extracting(SuggestionDTO::getText, SuggestionDTO::getCount)
+                .containsExactly(
+                        tuple("Falcon", 1L),
+                        tuple("Fennec fox", 1L),
+                        tuple("Tree frog", 1L),
+                        tuple("Fish", 1L),
+                        tuple("Fjord", 1L),
+                        tuple("Forest edge", 1L));
+        assertThat(texts(complete(s, "fr", 10))).containsExactly("Tree frog");
+        assertThat(texts(complete(s, "fox", 10))).containsExactly("Fennec fox");
+
+        assertSameAnswers(s, "f", "fo", "fr", "r", "", "m");
+    }
+
+    @Test
+    void staysExactWhenTheBestTermsLoseCount() {
+        // terms "ant 00".."ant 29", term t on 30 - t rows: every node list under "a" is full
+        List<AnimalDTO> rows = new ArrayList<>();
+        long id = 1;
+        for (int t = 0; t < 30; t++) {
+            for (int i = 0; i < 30 - t; i++) {
+                rows.add(animal(id++, String.format("Ant %02d", t), "Insect", "Nest"));
+            }
+        }
+        CatalogSnapshot s = new CatalogSnapshot(rows, 1);
+
+        // drop the 15 best terms entirely and halve the next one
+        for (AnimalDTO a : rows) {
+            int t = Integer.parseInt(a.getName().substring(4));
+            if (t < 15 || (t == 15 && a.getId() % 2 == 0)) s = s.withRemoval(a.getId(), a.getId());
+        }
+
+        assertThat(texts(complete(s, "ant", 3))).containsExactly("Ant 16", "Ant 17", "Ant 18");
+        assertSameAnswers(s, "a", "ant", "ant 1", "ant 2", "n", "i");
+    }
+
+    private static void assertSameAnswers(CatalogSnapshot patched, String... prefixes) {
+        CatalogSnapshot fresh = new CatalogSnapshot(patched.byName, 0);
+        for (String prefix : prefixes) {
+            assertThat(complete(patched, prefix, SuggestTrie.MAX_RESULTS))
+                    .as("suggest %s", prefix)
+                    .extracting(SuggestionDTO::getField, d -> d.getText().toLowerCase(), SuggestionDTO::getCount)
+                    .containsExactlyElementsOf(
+                            complete(fresh, prefix, SuggestTrie.MAX_RESULTS).stream()
+                                    .map(d -> tuple(d.getField(), d.getText().toLowerCase(), d.getCount()))
+                                    .toList());
+        }
+    }
+
+    private static List<SuggestionDTO> complete(CatalogSnapshot s, String prefix, int limit) {
+        return s.suggest(CatalogSnapshot.lower(prefix), limit);
+    }
+
+    private static List<String> texts(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getText).toList();
+    }
+
+    private static AnimalDTO animal(long id, String name, String category, String habitat) {
+        return AnimalDTO.builder().id(id).name(name).category(category).habitat(habitat).build();
+    }
+}
@@ -0,0 +1,105 @@
+package animalservice.service.catalog;
+
+import animalservice.domain.dto.AnimalDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    @Test
+    void ranksByMatchQuality() {
+        CatalogSnapshot s = snapshot(
+                animal(1, "Eagle", "Bird"),
+                animal(2, "Heron", "Fowl"),
+                animal(3, "Kestrel", "Owls and raptors"),
+                animal(4, "Barn", "Owl"),
+                animal(5, "Howler", "Mammal"),
+                animal(6, "Snowy owl", "Bird"),
+                animal(7, "Owlet", "Bird"),
+                animal(8, "Owl", "Bird"));
+
+        // exact, prefix, word prefix, substring of the name; then exact, prefix, substring of the category
+        assertThat(search(s, "owl"))
+                .containsExactly("Owl", "Owlet", "Snowy owl", "Howler", "Barn", "Kestrel", "Heron");
+    }
+
+    @Test
+    void equalMatchesKeepNameOrder() {
+        CatalogSnapshot s = snapshot(
+                animal(1, "Snowy owl", "Bird"),
+                animal(2, "Great grey owl", "Bird"),
+                animal(3, "barn owl", "Bird"),
+                animal(4, "Barn owl", "Bird"));
+
+        assertThat(search(s, "owl")).containsExactly("barn owl", "Barn owl", "Great grey owl", "Snowy owl");
+    }
+
+    @Test
+    void shortQueriesScanWithTheSameRanking() {
+        CatalogSnapshot s = snapshot(
+                animal(1, "Fox", "Mammal"),
+                animal(2, "Box turtle", "Reptile"),
+                animal(3, "Ox", "Mammal"),
+                animal(4, "Salmon", "Fish"));
+
+        assertThat(search(s, "ox")).containsExactly("Ox", "Box turtle", "Fox");
+        assertThat(search(s, "m")).containsExactly("Salmon", "Fox", "Ox");
+        assertThat(search(s, "")).containsExactly("Box turtle", "Fox", "Ox", "Salmon");
+    }
+
+    @Test
+    void foldsCaseButNotDiacritics() {
+        CatalogSnapshot s = snapshot(
+                animal(1, "Șoim călător", "Păsări"),
+                animal(2, "Soim", "Birds"));
+
+        assertThat(search(s, "ȘOIM")).containsExactly("Șoim călător");
+        assertThat(search(s, "CĂLĂ")).containsExactly("Șoim călător");
+        assertThat(search(s, "păsări")).containsExactly("Șoim călător");
+        assertThat(search(s, "soim")).containsExactly("Soim");
+    }
+
+    @Test
+    void candidatesAreVerifiedAgainstTheWholeTerm() {
+        // holds both trigrams of "abca", but not next to each other
+        CatalogSnapshot s = snapshot(animal(1, "abcxbca", "Test"), animal(2, "zabcab", "Test"));
+
+        assertThat(search(s, "abca")).containsExactly("zabcab");
+        assertThat(search(s, "zzz")).isEmpty();
+    }
+
+    @Test
+    void followsUpsertsAndRemovals() {
+        CatalogSnapshot s = snapshot(animal(1, "Red fox", "Mammal"), animal(2, "Arctic fox", "Mammal"));
+
+        s = s.withUpsert(animal(3, "Fennec fox", "Mammal"), 2);
+        assertThat(search(s, "fox")).containsExactly("Arctic fox", "Fennec fox", "Red fox");
+
+        s = s.withUpsert(animal(1, "Red wolf", "Mammal"), 3);
+        assertThat(search(s, "fox")).containsExactly("Arctic fox", "Fennec fox");
+        assertThat(search(s, "wolf")).containsExactly("Red wolf");
+        assertThat(search(s, "red")).containsExactly("Red wolf");
+
+        s = s.withRemoval(2L, 4);
+        assertThat(search(s, "fox")).containsExactly("Fennec fox");
+        assertThat(search(s, "ar")).isEmpty();
+    }
+
+    private static List<String> search(CatalogSnapshot s, String q) {
+        List<String> names = new ArrayList<>();
+        for (int pos : s.search(CatalogSnapshot.lower(q))) names.add(s.byName.get(pos).getName());
+        return names;
+    }
+
+    private static CatalogSnapshot snapshot(AnimalDTO... animals) {
+        return new CatalogSnapshot(List.of(animals), 1);
+    }
+
+    private static AnimalDTO animal(long id, String name, String category) {
+        return AnimalDTO.builder().id(id).name(name).category(category).build();
+    }
+}
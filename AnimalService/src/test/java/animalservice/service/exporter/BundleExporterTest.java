@@ -0,0 +1,123 @@
+package animalservice.service.exporter;
+
+import animalservice.domain.dto.AnimalDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.LongStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BundleExporterTest {
+
+    @TempDir
+    Path spoolDir;
+
+    private BundleExporter exporter;
+
+    @AfterEach
+    void shutdown() {
+        if (exporter != null) exporter.shutdown();
+    }
+
+    @Test
+    void everyEntryIsPresentAndReadable() throws Exception {
+        exporter = bundle(2, 1000);
+        int rows = 3 * BundleExporter.CHUNK + 17;
+        List<AnimalDTO> list = LongStream.rangeClosed(1, rows).mapToObj(BundleExporterTest::animal).toList();
+
+        Map<String, byte[]> entries = unzip(exporter.export(list));
+
+        assertThat(entries).containsOnlyKeys("animals.csv", "animals.json", "animals.xml", "animals.docx");
+
+        String csv = new String(entries.get("animals.csv"), StandardCharsets.UTF_8);
+        assertThat(csv.lines()).hasSize(rows + 1);
+        assertThat(csv).contains("Species 42");
+
+        JsonNode json = new ObjectMapper().readTree(entries.get("animals.json"));
+        assertThat(json.size()).isEqualTo(rows);
+        assertThat(json.get(rows - 1).get("id").asLong()).isEqualTo(rows);
+
+        JsonNode xml = new XmlMapper().readTree(entries.get("animals.xml"));
+        assertThat(xml.get("item").size()).isEqualTo(rows);
+
+        try (XWPFDocument docx = new XWPFDocument(new ByteArrayInputStream(entries.get("animals.docx")))) {
+            assertThat(docx.getTables()).isNotEmpty();
+        }
+        // spool files go once the entries are in the zip
+        try (var left = Files.list(spoolDir)) {
+            assertThat(left).isEmpty();
+        }
+    }
+
+    @Test
+    void emptyExportStillHasEveryEntry() throws Exception {
+        exporter = bundle(1, 1000);
+
+        Map<String, byte[]> entries = unzip(exporter.export(List.of()));
+
+        assertThat(entries).containsOnlyKeys("animals.csv", "animals.json", "animals.xml", "animals.docx");
+        assertThat(new ObjectMapper().readTree(entries.get("animals.json")).size()).isZero();
+    }
+
+    @Test
+    void bundlesBeyondTheLimitAreRejected() throws Exception {
+        exporter = bundle(1, 0);
+        assertThat(exporter.available()).isTrue();
+
+        RowSink running = exporter.begin(new ByteArrayOutputStream());
+        assertThat(exporter.available()).isFalse();
+        assertThatThrownBy(() -> exporter.begin(new ByteArrayOutputStream()))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        // an abandoned bundle gives its writers back
+        running.close();
+        assertThat(exporter.available()).isTrue();
+        assertThat(unzip(exporter.export(List.of(animal(1))))).hasSize(4);
+    }
+
+    private BundleExporter bundle(int maxConcurrent, long waitMillis) throws Exception {
+        return new BundleExporter(new CsvExporter(), new JsonExporter(), new XmlExporter(), new DocxExporter(),
+                spoolDir, maxConcurrent, waitMillis);
+    }
+
+    private static Map<String, byte[]> unzip(byte[] zip) throws Exception {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry e; (e = in.getNextEntry()) != null; ) {
+                // reading to the end checks the entry's CRC and size
+                entries.put(e.getName(), in.readAllBytes());
+            }
+        }
+        return entries;
+    }
+
+    private static AnimalDTO animal(long id) {
+        return AnimalDTO.builder()
+                .id(id)
+                .name("Species " + id)
+                .category(id % 2 == 0 ? "Mammal" : "Bird")
+                .dietType("Herbivore")
+                .habitat(id % 7 == 0 ? null : "Savanna")
+                .averageWeight(id * 1.5)
+                .averageAge(id % 30 + 0.5)
+                .build();
+    }
+}
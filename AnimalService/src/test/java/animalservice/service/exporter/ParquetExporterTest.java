@@ -0,0 +1,216 @@
+package animalservice.service.exporter;
+
+import animalservice.domain.dto.AnimalDTO;
+import org.apache.parquet.bytes.ByteBufferInputStream;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridDecoder;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Reads the exporter's files back with parquet-java, the reader most analytics tools build on. */
+class ParquetExporterTest {
+
+    private static final String[] HABITATS = {"Savanna", "Forest", "Ocean", null};
+
+    private final ParquetExporter exporter = new ParquetExporter();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rowsReadBackWithNullsAndTwoRowGroups() throws Exception {
+        int rows = ParquetExporter.ROW_GROUP_ROWS + 1000;
+        List<AnimalDTO> list = LongStream.rangeClosed(1, rows).mapToObj(ParquetExporterTest::animal).toList();
+        byte[] file = exporter.export(list);
+
+        assertMagic(file);
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(write(file)))) {
+            ParquetMetadata footer = reader.getFooter();
+            MessageType schema = footer.getFileMetaData().getSchema();
+            assertThat(schema.getName()).isEqualTo("animal");
+            assertThat(schema.getFields()).extracting(Type::getName).containsExactly(
+                    "id", "name", "category", "dietType", "habitat", "averageWeight", "averageAge");
+            assertThat(schema.getFields()).allMatch(f -> f.isRepetition(Type.Repetition.OPTIONAL));
+            assertThat(schema.getType("id").asPrimitiveType().getPrimitiveTypeName()).isEqualTo(PrimitiveTypeName.INT64);
+            assertThat(schema.getType("averageAge").asPrimitiveType().getPrimitiveTypeName()).isEqualTo(PrimitiveTypeName.DOUBLE);
+            assertThat(footer.getFileMetaData().getCreatedBy()).isEqualTo("animalservice");
+
+            List<BlockMetaData> groups = footer.getBlocks();
+            assertThat(groups).extracting(BlockMetaData::getRowCount)
+                    .containsExactly((long) ParquetExporter.ROW_GROUP_ROWS, 1000L);
+            long expectedOffset = 4; // after the leading magic
+            for (BlockMetaData group : groups) {
+                assertThat(group.getStartingPos()).isEqualTo(expectedOffset);
+                for (ColumnChunkMetaData chunk : group.getColumns()) {
+                    // chunks are contiguous, dictionary page first
+                    assertThat(chunk.getStartingPos()).isEqualTo(expectedOffset);
+                    assertThat(chunk.getCodec()).isEqualTo(CompressionCodecName.GZIP);
+                    assertThat(chunk.getValueCount()).isEqualTo(group.getRowCount());
+                    expectedOffset += chunk.getTotalSize();
+                }
+                assertThat(group.getCompressedSize()).isEqualTo(expectedOffset - group.getStartingPos());
+            }
+
+            ColumnChunkMetaData habitat = groups.get(0).getColumns().get(4);
+            assertThat(habitat.hasDictionaryPage()).isTrue();
+            assertThat(habitat.getStatistics().getNumNulls()).isEqualTo(ParquetExporter.ROW_GROUP_ROWS / 4);
+            assertThat(habitat.getStatistics().minAsString()).isEqualTo("Forest");
+            assertThat(habitat.getStatistics().maxAsString()).isEqualTo("Savanna");
+
+            List<Group> read = readAll(reader, schema);
+            assertThat(read).hasSize(rows);
+            for (int i = 0; i < rows; i++) assertRow(read.get(i), list.get(i));
+        }
+    }
+
+    @Test
+    void emptyExportIsAValidFileWithoutRowGroups() throws Exception {
+        byte[] file = exporter.export(List.of());
+
+        assertMagic(file);
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(write(file)))) {
+            assertThat(reader.getFooter().getBlocks()).isEmpty();
+            assertThat(reader.getRecordCount()).isZero();
+            assertThat(reader.getFooter().getFileMetaData().getSchema().getFieldCount()).isEqualTo(7);
+            assertThat(reader.readNextRowGroup()).isNull();
+        }
+    }
+
+    @Test
+    void allNullColumnHasNoStatisticsRange() throws Exception {
+        AnimalDTO bare = AnimalDTO.builder().id(1L).build();
+        byte[] file = exporter.export(List.of(bare, AnimalDTO.builder().id(2L).build()));
+
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(write(file)))) {
+            ColumnChunkMetaData name = reader.getFooter().getBlocks().get(0).getColumns().get(1);
+            assertThat(name.getStatistics().getNumNulls()).isEqualTo(2);
+            assertThat(name.getStatistics().hasNonNullValue()).isFalse();
+
+            List<Group> read = readAll(reader, reader.getFooter().getFileMetaData().getSchema());
+            assertThat(read).hasSize(2);
+            assertRow(read.get(0), bare);
+        }
+    }
+
+    /** Decoded by parquet-java's own RLE / bit-packing hybrid decoder */
+    @Test
+    void rleEncoderRoundTripsRunsAndPackedGroups() throws Exception {
+        Random random = new Random(11);
+        int[][] cases = {
+                {},
+                {1},
+                repeat(1, 7),
+                repeat(0, 9),
+                repeat(1, 100_000),
+                random.ints(1000, 0, 2).toArray(),
+                // a bit-packed run longer than the 63 groups one header can count
+                random.ints(63 * 8 * 3 + 5, 0, 2).toArray(),
+                concat(random.ints(13, 0, 8).toArray(), repeat(5, 20), random.ints(3, 0, 8).toArray(), repeat(7, 8)),
+                random.ints(5000, 0, 300).toArray()
+        };
+        for (int[] values : cases) {
+            int max = Arrays.stream(values).max().orElse(0);
+            int bitWidth = RleEncoder.bitWidth(max);
+            RleEncoder encoder = new RleEncoder(bitWidth);
+            for (int v : values) encoder.write(v);
+            byte[] encoded = encoder.toByteArray();
+
+            RunLengthBitPackingHybridDecoder decoder = new RunLengthBitPackingHybridDecoder(bitWidth,
+                    ByteBufferInputStream.wrap(ByteBuffer.wrap(encoded)));
+            int[] decoded = new int[values.length];
+            for (int i = 0; i < values.length; i++) decoded[i] = decoder.readInt();
+            assertThat(decoded).as("%d values up to %d", values.length, max).containsExactly(values);
+        }
+    }
+
+    private static List<Group> readAll(ParquetFileReader reader, MessageType schema) throws Exception {
+        List<Group> out = new ArrayList<>();
+        ColumnIOFactory io = new ColumnIOFactory();
+        for (PageReadStore pages; (pages = reader.readNextRowGroup()) != null; ) {
+            RecordReader<Group> records = io.getColumnIO(schema).getRecordReader(pages, new GroupRecordConverter(schema));
+            for (long i = 0; i < pages.getRowCount(); i++) out.add(records.read());
+        }
+        return out;
+    }
+
+    private static void assertRow(Group row, AnimalDTO expected) {
+        assertThat(row.getLong("id", 0)).isEqualTo(expected.getId());
+        assertThat(string(row, "name")).isEqualTo(expected.getName());
+        assertThat(string(row, "category")).isEqualTo(expected.getCategory());
+        assertThat(string(row, "dietType")).isEqualTo(expected.getDietType());
+        assertThat(string(row, "habitat")).isEqualTo(expected.getHabitat());
+        assertThat(number(row, "averageWeight")).isEqualTo(expected.getAverageWeight());
+        assertThat(number(row, "averageAge")).isEqualTo(expected.getAverageAge());
+    }
+
+    private static String string(Group row, String field) {
+        return row.getFieldRepetitionCount(field) == 0 ? null
+                : new String(row.getBinary(field, 0).getBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static Double number(Group row, String field) {
+        return row.getFieldRepetitionCount(field) == 0 ? null : row.getDouble(field, 0);
+    }
+
+    private static void assertMagic(byte[] file) {
+        assertThat(new String(file, 0, 4, StandardCharsets.US_ASCII)).isEqualTo("PAR1");
+        assertThat(new String(file, file.length - 4, 4, StandardCharsets.US_ASCII)).isEqualTo("PAR1");
+        int footerLength = (file[file.length - 8] & 0xFF) | (file[file.length - 7] & 0xFF) << 8
+                | (file[file.length - 6] & 0xFF) << 16 | (file[file.length - 5] & 0xFF) << 24;
+        assertThat(footerLength).isPositive().isLessThanOrEqualTo(file.length - 12);
+    }
+
+    private Path write(byte[] file) throws Exception {
+        Path path = Files.createTempFile(dir, "animals", ".parquet");
+        Files.write(path, file);
+        return path;
+    }
+
+    private static AnimalDTO animal(long id) {
+        return AnimalDTO.builder()
+                .id(id)
+                .name(id % 97 == 0 ? null : "Species " + id + " ü")
+                .category(id % 2 == 0 ? "Mammal" : "Bird")
+                .dietType("Herbivore")
+                .habitat(HABITATS[(int) (id % HABITATS.length)])
+                .averageWeight(id % 5 == 0 ? null : id * 0.5)
+                .averageAge(id % 3 == 0 ? 0.0 : id / 7.0)
+                .build();
+    }
+
+    private static int[] repeat(int value, int times) {
+        int[] out = new int[times];
+        Arrays.fill(out, value);
+        return out;
+    }
+
+    private static int[] concat(int[]... parts) {
+        return Arrays.stream(parts).flatMapToInt(Arrays::stream).toArray();
+    }
+}
@@ -0,0 +1,80 @@
+package animalservice.service.exporter;
+
+import animalservice.domain.dto.AnimalDTO;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XmlExporterTest {
+
+    private final XmlExporter exporter = new XmlExporter();
+
+    @Test
+    void matchesTheXmlMapperDocument() throws Exception {
+        AnimalDTO owl = animal(2);
+        owl.setName("Owl <&>");
+        owl.setHabitat(null);
+        List<AnimalDTO> list = List.of(animal(1), owl);
+
+        byte[] expected = new XmlMapper().writer().withRootName("animals").writeValueAsBytes(list);
+
+        assertThat(new String(exporter.export(list))).isEqualTo(new String(expected));
+    }
+
+    @Test
+    void heapStaysBoundedForAMillionRows() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        CountingSink sink = new CountingSink();
+        long[] usedAtHalf = new long[1];
+
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+
+        exporter.export(LongStream.rangeClosed(1, 1_000_000).mapToObj(id -> {
+            if (id == 500_000) {
+                System.gc();
+                usedAtHalf[0] = memory.getHeapMemoryUsage().getUsed();
+            }
+            return animal(id);
+        }), sink);
+
+        // a materialized document would hold > 100 MB by the halfway mark
+        assertThat(sink.bytes).isGreaterThan(200_000_000L);
+        assertThat(usedAtHalf[0] - before).isLessThan(32L * 1024 * 1024);
+    }
+
+    private static AnimalDTO animal(long id) {
+        return AnimalDTO.builder()
+                .id(id)
+                .name("Species " + id)
+                .category("Mammal")
+                .dietType("Herbivore")
+                .habitat("Savanna")
+                .averageWeight(120.5)
+                .averageAge(14.0)
+                .build();
+    }
+
+    /** Discards output, only counting bytes */
+    private static final class CountingSink extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package animalservice.service.importer;
+
+import animalservice.domain.Animal;
+import animalservice.domain.dto.ImportErrorDTO;
+import animalservice.domain.dto.ImportReportDTO;
+import animalservice.service.catalog.AnimalCatalog;
+import animalservice.service.exporter.CsvExporter;
+import animalservice.service.exporter.JsonExporter;
+import animalservice.service.exporter.NdjsonExporter;
+import animalservice.service.exporter.ParquetExporter;
+import animalservice.service.exporter.XmlExporter;
+import animalservice.service.stats.AnimalStatsService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Validation and the report, with the persistence layer stubbed out. */
+class AnimalImportServiceTest {
+
+    private static final String HEADER = "id,name,category,dietType,habitat,averageWeight,averageAge\n";
+
+    private final AnimalCatalog catalog = mock(AnimalCatalog.class);
+    private final AnimalStatsService stats = mock(AnimalStatsService.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    /** Names the "database" refuses */
+    private final List<String> refused = new ArrayList<>();
+    private final List<Animal> persisted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        doAnswer(call -> {
+            Animal a = call.getArgument(0);
+            if (refused.contains(a.getName())) throw new PersistenceException("Duplicate entry '" + a.getName() + "'");
+            persisted.add(a);
+            return null;
+        }).when(entityManager).persist(any(Animal.class));
+    }
+
+    @Test
+    void validRowsAreImportedInBatches() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 1; i <= 7; i++) csv.append(i).append(",Species ").append(i).append(",Bird,Omnivore,Forest,1.5,3\n");
+
+        ImportReportDTO report = service(3, 10).importAll(new CsvExporter(), in(csv.toString()));
+
+        assertThat(report.getFormat()).isEqualTo("csv");
+        assertThat(report.getRows()).isEqualTo(7);
+        assertThat(report.getImported()).isEqualTo(7);
+        assertThat(report.getRejected()).isZero();
+        assertThat(report.getBatches()).isEqualTo(3);
+        assertThat(report.isComplete()).isTrue();
+        assertThat(report.getErrors()).isEmpty();
+        // ids in the upload are ignored
+        assertThat(persisted).extracting(Animal::getId).containsOnlyNulls();
+        assertThat(persisted).extracting(Animal::getAverageWeight).containsOnly(1.5);
+        verify(catalog).refresh();
+        verify(stats, never()).reconcile();
+    }
+
+    @Test
+    void invalidRowsAreReportedByRowAndField() {
+        String csv = HEADER
+                + "1,Owl,Bird,Carnivore,Forest,1.5,3\n"
+                + "2,,Bird,Carnivore,Forest,1.5,3\n"
+                + "3,null,Bird,Carnivore,Forest,abc,-1\n"
+                + "4," + "x".repeat(101) + ",Bird,Carnivore,Forest,NaN,3\n"
+                + "5,Eagle,Bird,Carnivore,Mountains,5,20\n";
+
+        ImportReportDTO report = service(500, 10).importAll(new CsvExporter(), in(csv));
+
+        assertThat(report.getRows()).isEqualTo(5);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(ImportErrorDTO::getRow, ImportErrorDTO::getField, ImportErrorDTO::getMessage)
+                .containsExactly(
+                        tuple(2L, "name", "is required"),
+                        tuple(3L, "name", "is required"),
+                        tuple(3L, "averageWeight", "is not a number: abc"),
+                        tuple(3L, "averageAge", "must be a non-negative number"),
+                        tuple(4L, "name", "is longer than 100 characters"),
+                        tuple(4L, "averageWeight", "must be a non-negative number"));
+        assertThat(persisted).extracting(Animal::getName).containsExactly("Owl", "Eagle");
+    }
+
+    @Test
+    void headerAliasesAreNormalized() {
+        String csv = "Species,CATEGORY,diet_type,Habitat,avg weight,Avg-Age\nOwl,Bird,Carnivore,Forest,1.5,3\n";
+
+        ImportReportDTO report = service(500, 10).importAll(new CsvExporter(), in(csv));
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(persisted.get(0).getDietType()).isEqualTo("Carnivore");
+        assertThat(persisted.get(0).getAverageAge()).isEqualTo(3.0);
+    }
+
+    @Test
+    void errorListIsCappedButEveryRejectionCounted() {
+        StringBuilder json = new StringBuilder();
+        for (int i = 0; i < 5; i++) json.append("{\"name\": \"Owl ").append(i).append("\"}\n");
+
+        ImportReportDTO report = service(500, 3).importAll(new NdjsonExporter(new JsonExporter()), in(json.toString()));
+
+        assertThat(report.getRejected()).isEqualTo(5);
+        assertThat(report.getErrors()).hasSize(3);
+        assertThat(report.isErrorsTruncated()).isTrue();
+        verify(catalog, never()).refresh();
+    }
+
+    @Test
+    void malformedInputKeepsTheRowsBeforeIt() {
+        String json = "[{\"name\":\"Owl\",\"category\":\"Bird\",\"dietType\":\"Carnivore\",\"habitat\":\"Forest\","
+                + "\"averageWeight\":1.5,\"averageAge\":3}, {\"name\": ";
+
+        ImportReportDTO report = service(500, 10).importAll(new JsonExporter(), in(json));
+
+        assertThat(report.isComplete()).isFalse();
+        assertThat(report.getRows()).isEqualTo(1);
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement().satisfies(e -> {
+            assertThat(e.getRow()).isEqualTo(2);
+            assertThat(e.getField()).isNull();
+            assertThat(e.getMessage()).startsWith("Unreadable input");
+        });
+    }
+
+    @Test
+    void rowTheDatabaseRefusesIsIsolatedFromItsBatch() {
+        refused.add("Eagle");
+        String xml = "<animals>"
+                + item("Owl") + item("Eagle") + item("Heron")
+                + "</animals>";
+
+        ImportReportDTO report = service(500, 10).importAll(new XmlExporter(), in(xml));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement().satisfies(e -> {
+            assertThat(e.getRow()).isEqualTo(2);
+            assertThat(e.getMessage()).contains("Rejected by the database", "Duplicate entry 'Eagle'");
+        });
+        verify(stats).reconcile();
+        verify(catalog).refresh();
+    }
+
+    @Test
+    void binaryFormatsCannotBeImported() {
+        assertThatThrownBy(() -> service(500, 10).importAll(new ParquetExporter(), in("")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private AnimalImportService service(int batchSize, int maxErrors) {
+        AnimalImportService service = new AnimalImportService(mock(PlatformTransactionManager.class),
+                catalog, stats, batchSize, maxErrors);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        return service;
+    }
+
+    private static String item(String name) {
+        return "<item><name>" + name + "</name><category>Bird</category><dietType>Carnivore</dietType>"
+                + "<habitat>Wetland</habitat><averageWeight>2</averageWeight><averageAge>8</averageAge></item>";
+    }
+
+    private static ByteArrayInputStream in(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,115 @@
+package animalservice.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RowSourceTest {
+
+    @Test
+    void csvMapsCellsByHeaderAndSkipsBlankLines() throws Exception {
+        List<Map<String, String>> rows = readAll(new CsvRowSource(in("""
+                "Name","Category","Habitat"
+                "Grey wolf","Mammal","Forest, taiga"
+
+                "Owl","Bird"
+                "Multi
+                line","Bird","Attic","extra"
+                """)));
+
+        assertThat(rows).containsExactly(
+                Map.of("Name", "Grey wolf", "Category", "Mammal", "Habitat", "Forest, taiga"),
+                // a short row maps the cells it has, a long one drops the cells past the header
+                Map.of("Name", "Owl", "Category", "Bird"),
+                Map.of("Name", "Multi\nline", "Category", "Bird", "Habitat", "Attic"));
+    }
+
+    @Test
+    void csvWithoutRowsOrInputIsEmpty() throws Exception {
+        assertThat(readAll(new CsvRowSource(in("")))).isEmpty();
+        assertThat(readAll(new CsvRowSource(in("name,category\n")))).isEmpty();
+    }
+
+    @Test
+    void csvWithAnUnterminatedQuoteIsUnreadable() {
+        assertThatThrownBy(() -> readAll(new CsvRowSource(in("name,category\n\"Owl,Bird\n"))))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void jsonReadsArraysAndNewlineDelimitedObjects() throws Exception {
+        Map<String, String> owl = new HashMap<>();
+        owl.put("name", "Owl");
+        owl.put("averageWeight", "1.5");
+        owl.put("habitat", null);
+
+        assertThat(readAll(new JsonRowSource(in("""
+                [{"name": "Owl", "averageWeight": 1.5, "habitat": null, "tags": ["a", {"b": 1}], "meta": {"x": [1]}}]
+                """)))).containsExactly(owl);
+        assertThat(readAll(new JsonRowSource(in("""
+                {"name": "Owl", "averageWeight": 1.5, "habitat": null}
+                {"name": "Eagle"}
+                """)))).containsExactly(owl, Map.of("name", "Eagle"));
+        assertThat(readAll(new JsonRowSource(in("[]")))).isEmpty();
+        assertThat(readAll(new JsonRowSource(in("")))).isEmpty();
+    }
+
+    @Test
+    void malformedJsonFailsAfterTheRowsBeforeIt() throws Exception {
+        RowSource array = new JsonRowSource(in("[{\"name\": \"Owl\"}, 42]"));
+        assertThat(array.next()).isEqualTo(Map.of("name", "Owl"));
+        assertThatThrownBy(array::next).isInstanceOf(IOException.class).hasMessageContaining("Expected one object");
+
+        RowSource truncated = new JsonRowSource(in("[{\"name\": \"Owl\"}, {\"name\": "));
+        assertThat(truncated.next()).isEqualTo(Map.of("name", "Owl"));
+        assertThatThrownBy(truncated::next).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void xmlReadsTheExporterAndLegacyLayouts() throws Exception {
+        assertThat(readAll(new XmlRowSource(in("""
+                <animals>
+                  <item><id>1</id><name>Owl &amp; co</name><habitat/></item>
+                  <item><name>Eagle</name></item>
+                </animals>
+                """)))).containsExactly(
+                Map.of("id", "1", "name", "Owl & co", "habitat", ""),
+                Map.of("name", "Eagle"));
+        assertThat(readAll(new XmlRowSource(in(
+                "<SingletonMap><animals><name>Owl</name></animals><animals><name>Eagle</name></animals></SingletonMap>"))))
+                .extracting(r -> r.get("name")).containsExactly("Owl", "Eagle");
+        assertThat(readAll(new XmlRowSource(in("<animals/>")))).isEmpty();
+    }
+
+    @Test
+    void xmlRefusesDtdsAndReportsBrokenDocuments() {
+        assertThatThrownBy(() -> readAll(new XmlRowSource(in("""
+                <?xml version="1.0"?>
+                <!DOCTYPE animals [<!ENTITY xxe SYSTEM "file:///etc/passwd">]>
+                <animals><item><name>&xxe;</name></item></animals>
+                """)))).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> readAll(new XmlRowSource(in("<animals><item><name>Owl</item></animals>"))))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static List<Map<String, String>> readAll(RowSource source) throws IOException {
+        List<Map<String, String>> rows = new ArrayList<>();
+        try (source) {
+            for (Map<String, String> row; (row = source.next()) != null; ) rows.add(row);
+        }
+        return rows;
+    }
+
+    private static ByteArrayInputStream in(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
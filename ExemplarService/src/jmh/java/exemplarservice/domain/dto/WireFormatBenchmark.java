@@ -0,0 +1,91 @@
+package exemplarservice.domain.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one ExemplarDTO body on the wire in each negotiated format: a
+ * single exemplar and a 100-row listing.
+ * Mappers are built the way WireFormatConfig builds them. The encoded size
+ * of every (format, shape) pair is printed once per trial, since JMH only
+ * reports times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WireFormatBenchmark {
+
+    private static final String[] NAMES = {"Luna", "Rex", "Bella", "Max", "Kiara", "Simba", "Nala", "Toby"};
+    private static final String[] SPECIES = {"Grey wolf", "Red fox", "African lion", "Golden eagle", "Ball python"};
+    private static final String[] LOCATIONS = {"Enclosure A", "Enclosure B", "Aviary", "Reptile house"};
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"one", "list100"})
+    public String shape;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        Random random = new Random(42);
+        List<ExemplarDTO> rows = new ArrayList<>();
+        for (long id = 1; id <= (shape.equals("one") ? 1 : 100); id++) {
+            int species = random.nextInt(SPECIES.length);
+            rows.add(ExemplarDTO.builder()
+                    .id(id)
+                    .animalId((long) species + 1)
+                    .name(NAMES[random.nextInt(NAMES.length)] + " " + id)
+                    .specie(SPECIES[species])
+                    .images(List.of("/uploads/exemplar-" + id + "-1.jpg", "/uploads/exemplar-" + id + "-2.jpg"))
+                    .location(LOCATIONS[random.nextInt(LOCATIONS.length)])
+                    .age(Math.round(random.nextDouble() * 200) / 10.0)
+                    .weight(Math.round(random.nextDouble() * 5000) / 10.0)
+                    .notes("Vaccinated; annual check-up due")
+                    .build());
+        }
+        if (shape.equals("one")) {
+            value = rows.get(0);
+            writer = mapper.writerFor(ExemplarDTO.class);
+            reader = mapper.readerFor(ExemplarDTO.class);
+        } else {
+            value = rows;
+            writer = mapper.writerFor(new TypeReference<List<ExemplarDTO>>() { });
+            reader = mapper.readerFor(new TypeReference<List<ExemplarDTO>>() { });
+        }
+        encoded = writer.writeValueAsBytes(value);
+        System.out.printf("%n[wire] %s %s: %d bytes%n", format, shape, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
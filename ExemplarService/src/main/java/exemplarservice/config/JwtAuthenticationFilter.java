@@ -38,30 +38,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String token = authHeader.substring(7);
-        String username = null;
-        List<String> roles = null;
 
-        try {
-            username = jwtUtil.extractUsername(token);
-            roles = jwtUtil.extractRoles(token); // Extrage rolurile direct din token
-        } catch (Exception e) {
-            // Loghează eroarea, dar permite cererii să continue.
-            // Spring Security va bloca cererea mai târziu dacă un endpoint e @Secured/@PreAuthorize
-            // și autentificarea este null.
-            logger.warn("JWT Token processing failed for request to " + request.getRequestURI() + ": " + e.getMessage());
-        }
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtUtil.VerifiedToken verified = null;
+            try {
+                // Semnătura și expirarea se verifică o singură dată per token; repetările vin din cache
+                verified = jwtUtil.verify(token);
+            } catch (Exception e) {
+                // Loghează eroarea, dar permite cererii să continue.
+                // Spring Security va bloca cererea mai târziu dacă un endpoint e @Secured/@PreAuthorize
+                // și autentificarea este null.
+                logger.warn("JWT Token processing failed for request to " + request.getRequestURI() + ": " + e.getMessage());
+            }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Aici, validăm token-ul doar împotriva expirării și semnăturii.
             // Nu mai avem userDetails.loadUserByUsername(username);
-            if (jwtUtil.validateToken(token)) { // Doar validarea token-ului
-                List<GrantedAuthority> authorities = roles.stream()
+            if (verified != null && verified.username() != null) {
+                List<GrantedAuthority> authorities = verified.roles().stream()
                         .map(SimpleGrantedAuthority::new)
                         .collect(Collectors.toList());
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                username, // Principal-ul va fi username-ul
+                                verified.username(), // Principal-ul va fi username-ul
                                 null,     // Credentialele sunt null, deoarece token-ul a fost deja verificat
                                 authorities // Autoritățile (rolurile) preluate din token
                         );
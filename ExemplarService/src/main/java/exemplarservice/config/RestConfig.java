@@ -1,5 +1,6 @@
 package exemplarservice.config;
 
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
@@ -8,10 +9,9 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class RestConfig {
     @Bean
-    public RestTemplate restTemplate(ClientHttpRequestInterceptor authInterceptor) {
-        RestTemplate rt = new RestTemplate();
-        rt.getInterceptors().add(authInterceptor);
-        return rt;
+    public RestTemplate restTemplate(RestTemplateBuilder builder, ClientHttpRequestInterceptor authInterceptor) {
+        // from the builder, so outgoing calls are observed as http.client.requests
+        return builder.additionalInterceptors(authInterceptor).build();
     }
 
     @Bean
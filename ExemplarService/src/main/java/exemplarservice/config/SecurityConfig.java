@@ -44,6 +44,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/exemplar/**").permitAll()
                         .requestMatchers(HttpMethod.PUT, "/api/exemplar/**").permitAll()   // ✅ ADD THIS
                         .requestMatchers(HttpMethod.DELETE, "/api/exemplar/**").permitAll() // ✅ If needed
+                        // scraped by Prometheus and probed by the orchestrator, neither carries a JWT
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
+
                         .anyRequest().authenticated()
                 )
 
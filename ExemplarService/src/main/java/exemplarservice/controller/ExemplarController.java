@@ -1,5 +1,6 @@
 package exemplarservice.controller;
 
+import exemplarservice.domain.dto.CursorPageDTO;
 import exemplarservice.domain.dto.ExemplarDTO;
 import exemplarservice.facade.ExemplarFacade;
 import org.springframework.http.HttpStatus;
@@ -7,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -31,6 +33,23 @@ public class ExemplarController {
         return ResponseEntity.ok(list);
     }
 
+    /**
+     * 1b. GET /api/exemplar?cursor=&sort=name,asc&limit=20 — keyset-paged listing;
+     * pass the returned {@code next} back as {@code cursor} until it is null.
+     * Accessible by VISITOR (unauthenticated) and above
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageDTO<ExemplarDTO>> getExemplarsAfter(
+            @RequestParam(defaultValue = "id,asc") String sort,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(facade.listAfter(sort, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     /**
      * 2. GET /api/exemplars/{id} — get one by ID
      * Accessible by VISITOR (unauthenticated) and above
@@ -6,7 +6,7 @@ import lombok.*;
 import java.util.List;
 
 @Entity
-@Table(name = "exemplar")
+@Table(name = "exemplar", indexes = @Index(name = "idx_exemplar_name", columnList = "name"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,15 @@
+package exemplarservice.domain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class CursorPageDTO<T> {
+    /** Items on this page, in the requested order */
+    private List<T> content;
+    /** Requested page size */
+    private int size;
+    /** Opaque cursor for the following page; null on the last page */
+    private String next;
+}
@@ -1,6 +1,7 @@
 package exemplarservice.facade;
 
 import exemplarservice.domain.dto.AnimalDTO;
+import exemplarservice.domain.dto.CursorPageDTO;
 import exemplarservice.domain.dto.ExemplarDTO;
 import exemplarservice.service.AnimalApiService;
 import exemplarservice.service.ExemplarService;
@@ -26,6 +27,12 @@ public class ExemplarFacade {
         return dtos;
     }
 
+    public CursorPageDTO<ExemplarDTO> listAfter(String sort, String cursor, int limit) {
+        CursorPageDTO<ExemplarDTO> page = exemplarService.listAfter(sort, cursor, limit);
+        page.getContent().forEach(this::enrichWithAnimalData);
+        return page;
+    }
+
     public ExemplarDTO getExemplarById(Long id) {
         ExemplarDTO dto = exemplarService.getExemplarById(id);
         enrichWithAnimalData(dto);
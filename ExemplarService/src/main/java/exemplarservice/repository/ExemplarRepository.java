@@ -3,6 +3,7 @@ package exemplarservice.repository;
 
 import exemplarservice.domain.Exemplar;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-public interface ExemplarRepository extends JpaRepository<Exemplar, Long> {
-}
\ No newline at end of file
+public interface ExemplarRepository extends JpaRepository<Exemplar, Long>, JpaSpecificationExecutor<Exemplar> {
+}
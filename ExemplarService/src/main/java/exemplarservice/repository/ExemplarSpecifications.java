@@ -0,0 +1,44 @@
+package exemplarservice.repository;
+
+import exemplarservice.domain.Exemplar;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criteria building blocks for {@link ExemplarRepository}.
+ */
+public final class ExemplarSpecifications {
+
+    private ExemplarSpecifications() {
+    }
+
+    /**
+     * Rows strictly after {@code last} in {@code sort} order (every property
+     * of the sort must be a key of {@code last}; null means from the start),
+     * as {@code k1 > v1 OR (k1 = v1 AND k2 > v2) OR ...} so MySQL can seek
+     * on an index over the leading column.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Exemplar> after(Sort sort, Map<String, Object> last) {
+        if (last == null) return (root, query, cb) -> cb.conjunction();
+        return (root, query, cb) -> {
+            List<Predicate> or = new ArrayList<>();
+            List<Predicate> tied = new ArrayList<>();
+            for (Sort.Order order : sort) {
+                Path<Comparable> path = root.get(order.getProperty());
+                Comparable value = (Comparable) last.get(order.getProperty());
+                List<Predicate> and = new ArrayList<>(tied);
+                and.add(order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+                or.add(cb.and(and.toArray(new Predicate[0])));
+                tied.add(cb.equal(path, value));
+            }
+            return cb.or(or.toArray(new Predicate[0]));
+        };
+    }
+}
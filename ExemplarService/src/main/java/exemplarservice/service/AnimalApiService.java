@@ -1,21 +1,71 @@
 package exemplarservice.service;
 
 import exemplarservice.domain.dto.AnimalDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+
 @Service
 public class AnimalApiService {
+    /** Smile first: smaller and cheaper to parse than JSON, which stays acceptable as a fallback */
+    private static final List<MediaType> ACCEPT = List.of(
+            MediaType.parseMediaType("application/x-jackson-smile"),
+            MediaType.parseMediaType("application/json;q=0.9"));
+
     private final RestTemplate rest;
-    public AnimalApiService(RestTemplate rest) {
+    private final MeterRegistry meters;
+
+    public AnimalApiService(RestTemplate rest, MeterRegistry meters) {
         this.rest = rest;
+        this.meters = meters;
     }
 
+    /**
+     * Timed as {@code zoo.animal.api} whatever the result; failures are
+     * counted through its {@code outcome} tag (client_error, server_error,
+     * io_error, failure) and the exception that ended the call.
+     */
     public AnimalDTO fetchById(Long id) {
-        return rest.getForObject(
-                "http://localhost:8081/api/animal/{id}",
-                AnimalDTO.class,
-                id
-        );
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(ACCEPT);
+        Timer.Sample sample = Timer.start(meters);
+        RuntimeException failure = null;
+        try {
+            return rest.exchange(
+                    "http://localhost:8081/api/animal/{id}",
+                    HttpMethod.GET,
+                    new HttpEntity<>(headers),
+                    AnimalDTO.class,
+                    id
+            ).getBody();
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("zoo.animal.api")
+                    .description("Calls from exemplar-service to animal-service")
+                    .tag("operation", "fetchById")
+                    .tag("outcome", outcome(failure))
+                    .tag("exception", failure == null ? "none" : failure.getClass().getSimpleName())
+                    .register(meters));
+        }
+    }
+
+    private static String outcome(RuntimeException failure) {
+        if (failure == null) return "success";
+        if (failure instanceof HttpStatusCodeException e) {
+            return e.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        if (failure instanceof ResourceAccessException) return "io_error";
+        return "failure";
     }
 }
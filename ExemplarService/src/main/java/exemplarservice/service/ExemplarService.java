@@ -1,19 +1,34 @@
 // src/main/java/exemplarservice/service/ExemplarService.java
 package exemplarservice.service;
 
+import exemplarservice.domain.dto.CursorPageDTO;
 import exemplarservice.domain.dto.ExemplarDTO;
 import exemplarservice.repository.ExemplarRepository;
+import exemplarservice.repository.ExemplarSpecifications;
 import exemplarservice.domain.Exemplar;
 import exemplarservice.domain.dto.AnimalDTO;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class ExemplarService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Map<String, String> SORTABLE = Map.of(
+            "id", "id",
+            "name", "name",
+            "animalId", "animalId",
+            "location", "location",
+            "age", "age",
+            "weight", "weight");
+
     private final ExemplarRepository repository;
     private final AnimalApiService animalApiService;  // << inject
 
@@ -33,6 +48,35 @@ public class ExemplarService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated listing, without the species enrichment (the facade
+     * adds it). Without a cursor the first page is returned in {@code sort}
+     * order; with one, the page after it in the order the cursor was issued for.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ExemplarDTO> listAfter(String sort, String cursor, int limit) {
+        KeysetCursor from = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        String spec = from == null ? sort : from.sort();
+        Sort order = parseSort(spec);
+        Map<String, Object> after = from == null ? null : from.after();
+        if (after != null && !isSortKey(after, order)) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        // one extra row tells whether there is a next page
+        List<Exemplar> rows = repository.findBy(ExemplarSpecifications.after(order, after),
+                q -> q.sortBy(order).limit(size + 1).all());
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            next = new KeysetCursor(spec, sortKey(rows.get(size - 1), order)).encode();
+        }
+        return new CursorPageDTO<>(rows.stream().map(this::toDto).collect(Collectors.toList()), size, next);
+    }
+
     @Transactional(readOnly = true)
     public ExemplarDTO getExemplarById(Long id) {
         Exemplar ex = repository.findById(id)
@@ -75,6 +119,70 @@ public class ExemplarService {
 
     // --- Internal helpers ---
 
+    /**
+     * Translates {@code field,dir;field,dir} into an ORDER BY; unknown fields
+     * fall back to {@code id}, which is always appended as the tie-breaker.
+     */
+    static Sort parseSort(String sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String part : sort.split(";")) {
+            if (part.isBlank()) continue;
+            String[] kv = part.split(",");
+            String field = SORTABLE.getOrDefault(kv[0].trim(), "id");
+            Sort.Direction dir = kv.length > 1 && "desc".equalsIgnoreCase(kv[1].trim())
+                    ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+            if (orders.stream().noneMatch(o -> o.getProperty().equals(field))) {
+                orders.add(new Sort.Order(dir, field));
+            }
+        }
+        if (orders.stream().noneMatch(o -> o.getProperty().equals("id"))) orders.add(Sort.Order.asc("id"));
+        return Sort.by(orders);
+    }
+
+    /**
+     * Whether {@code key} has exactly the {@code sort} properties, each with
+     * a non-null value of the column's type; a forged cursor must not reach
+     * the criteria query.
+     */
+    static boolean isSortKey(Map<String, Object> key, Sort sort) {
+        if (!key.keySet().equals(sortKey(null, sort).keySet())) return false;
+        for (Sort.Order order : sort) {
+            if (!keyType(order.getProperty()).isInstance(key.get(order.getProperty()))) return false;
+        }
+        return true;
+    }
+
+    private static Class<?> keyType(String property) {
+        switch (property) {
+            case "name":
+            case "location": return String.class;
+            case "age":
+            case "weight":   return Double.class;
+            default:         return Long.class; // id, animalId
+        }
+    }
+
+    /** Values of the {@code sort} properties of {@code ex} (all null when {@code ex} is), in sort order. */
+    private static Map<String, Object> sortKey(Exemplar ex, Sort sort) {
+        Map<String, Object> key = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            Object value = null;
+            if (ex != null) {
+                switch (order.getProperty()) {
+                    case "name":     value = ex.getName(); break;
+                    case "animalId": value = ex.getAnimalId(); break;
+                    case "location": value = ex.getLocation(); break;
+                    case "age":      value = ex.getAge(); break;
+                    case "weight":   value = ex.getWeight(); break;
+                    default:         value = ex.getId();
+                }
+            }
+            key.put(order.getProperty(), value);
+        }
+        return key;
+    }
+
     private ExemplarDTO toDto(Exemplar ex) {
         return ExemplarDTO.builder()
                 .id(ex.getId())
@@ -0,0 +1,108 @@
+package exemplarservice.config;
+
+import exemplarservice.config.JwtUtil.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    void verifiesATokenOnceUntilItExpires() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        Function<String, VerifiedToken> verifier = valid(TimeUnit.HOURS.toMillis(1));
+
+        VerifiedToken first = cache.get("a", verifier);
+        assertThat(cache.get("a", verifier)).isSameAs(first);
+        assertThat(first.username()).isEqualTo("a");
+        assertThat(verifications).hasValue(1);
+
+        cache.get("b", verifier);
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void anExpiredEntryIsVerifiedAgain() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        Function<String, VerifiedToken> verifier = valid(-1);
+
+        cache.get("a", verifier);
+        cache.get("a", verifier);
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void aFailedVerificationIsNeverCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        Function<String, VerifiedToken> forged = token -> {
+            verifications.incrementAndGet();
+            throw new JwtException("bad signature");
+        };
+
+        assertThatThrownBy(() -> cache.get("a", forged)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cache.get("a", forged)).isInstanceOf(JwtException.class);
+
+        assertThat(verifications).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void aFullCacheDropsExpiredEntriesFirst() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        for (int i = 0; i < 8; i++) cache.get("expired" + i, valid(-1));
+        for (int i = 0; i < 8; i++) cache.get("live" + i, valid(TimeUnit.HOURS.toMillis(1)));
+        assertThat(cache.size()).isEqualTo(16);
+
+        cache.get("one more", valid(TimeUnit.HOURS.toMillis(1)));
+
+        assertThat(cache.size()).isEqualTo(9);
+        int before = verifications.get();
+        for (int i = 0; i < 8; i++) cache.get("live" + i, valid(TimeUnit.HOURS.toMillis(1)));
+        assertThat(verifications).hasValue(before);
+    }
+
+    @Test
+    void aFullCacheOfLiveEntriesIsTrimmedByAnEighth() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(64);
+        Function<String, VerifiedToken> verifier = valid(TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 64; i++) cache.get("t" + i, verifier);
+
+        cache.get("one more", verifier);
+        // down to 64 - 64 / 8 - 1 before the new entry goes in
+        assertThat(cache.size()).isEqualTo(56);
+
+        // and not swept again until it fills back up
+        for (int i = 0; i < 8; i++) cache.get("more" + i, verifier);
+        assertThat(cache.size()).isEqualTo(64);
+    }
+
+    @Test
+    void zeroEntriesTurnsCachingOff() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+        Function<String, VerifiedToken> verifier = valid(TimeUnit.HOURS.toMillis(1));
+
+        cache.get("a", verifier);
+        cache.get("a", verifier);
+
+        assertThat(verifications).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    /** A verifier accepting every token, which expires {@code ttlMillis} from now */
+    private Function<String, VerifiedToken> valid(long ttlMillis) {
+        return token -> {
+            verifications.incrementAndGet();
+            return new VerifiedToken(token, List.of("EMPLOYEE"), System.currentTimeMillis() + ttlMillis);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package exemplarservice.service;
+
+import exemplarservice.domain.Exemplar;
+import exemplarservice.repository.ExemplarRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ExemplarServiceTest {
+
+    private final ExemplarRepository repository = mock(ExemplarRepository.class);
+    private final ExemplarService service = new ExemplarService(repository, mock(AnimalApiService.class));
+
+    @Test
+    void cursorsWithTheWrongKeysOrValueTypesAreRejected() {
+        Map<String, Object> textId = new LinkedHashMap<>();
+        textId.put("age", 3.0);
+        textId.put("id", "1");
+        Map<String, Object> longAge = new LinkedHashMap<>();
+        longAge.put("age", 3L);
+        longAge.put("id", 1L);
+        Map<String, Object> nullAge = new LinkedHashMap<>();
+        nullAge.put("age", null);
+        nullAge.put("id", 1L);
+        Map<String, Object> missing = Map.of("age", 3.0);
+        Map<String, Object> extra = new LinkedHashMap<>(Map.of("age", 3.0, "id", 1L, "weight", 2.0));
+
+        for (Map<String, Object> after : List.of(textId, longAge, nullAge, missing, extra)) {
+            String cursor = new KeysetCursor("age,desc", after).encode();
+            assertThatThrownBy(() -> service.listAfter("age,desc", cursor, 10))
+                    .as("%s", after)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Malformed cursor");
+        }
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aWellTypedCursorReachesTheQuery() {
+        when(repository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.<Exemplar>of());
+        Map<String, Object> after = new LinkedHashMap<>();
+        after.put("name", "Rex");
+        after.put("weight", 12.5);
+        after.put("id", 7L);
+
+        String cursor = new KeysetCursor("name,asc;weight,desc", after).encode();
+
+        assertThat(service.listAfter("ignored", cursor, 10).getNext()).isNull();
+        verify(repository).findBy(any(Specification.class), any(Function.class));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.userserver.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Metrics defaults shared by the three services: Prometheus on
+ * {@code /actuator/prometheus}, an {@code application} tag on every meter
+ * and latency histograms for endpoints, outbound calls, repositories and
+ * the {@code zoo.*} timers. A property source added this way ranks below
+ * application.properties and the environment, which can override any of it.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+}
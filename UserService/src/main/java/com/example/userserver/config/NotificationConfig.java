@@ -0,0 +1,15 @@
+package com.example.userserver.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * SMTP timeouts for the notification dispatcher, so a stalled mail server
+ * fails a send (and schedules its retry) instead of holding a pool thread.
+ * Ranks below application.properties and the environment, like
+ * {@link MetricsConfig}.
+ */
+@Configuration
+@PropertySource("classpath:notification.properties")
+public class NotificationConfig {
+}
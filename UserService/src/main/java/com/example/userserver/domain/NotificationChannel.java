@@ -0,0 +1,5 @@
+package com.example.userserver.domain;
+
+public enum NotificationChannel {
+    EMAIL, SMS
+}
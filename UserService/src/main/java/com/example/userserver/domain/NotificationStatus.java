@@ -0,0 +1,9 @@
+package com.example.userserver.domain;
+
+/** Sent notifications are deleted from the outbox, so only these two remain. */
+public enum NotificationStatus {
+    /** Waiting for its first attempt or for a retry */
+    PENDING,
+    /** Gave up after the last attempt; kept for inspection, body and secret wiped */
+    FAILED
+}
@@ -0,0 +1,63 @@
+/*
+ * Entity: OutboxNotification
+ */
+package com.example.userserver.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * An email or SMS written in the same transaction as the user change it
+ * announces, delivered later by {@code NotificationDispatcher}.
+ */
+@Entity
+@Table(name = "notification_outbox",
+        indexes = @Index(name = "idx_notification_outbox_due", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxNotification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationChannel channel;
+
+    /** new_user or update, as tagged in the dispatch metrics */
+    @Column(nullable = false)
+    private String kind;
+
+    /** Email address or phone number */
+    private String recipient;
+
+    private String subject;
+
+    /** May hold {@code NotificationService.SECRET} where {@link #secret} goes */
+    @Lob
+    private String body;
+
+    /** Sealed by {@code NotificationSecrets}; null when the body needs none */
+    @Column(length = 512)
+    private String secret;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationStatus status;
+
+    private int attempts;
+
+    /** Not picked up before this; also the lease of a batch being sent */
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -0,0 +1,29 @@
+package com.example.userserver.repository;
+
+import com.example.userserver.domain.NotificationStatus;
+import com.example.userserver.domain.OutboxNotification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxNotificationRepository extends JpaRepository<OutboxNotification, Long> {
+
+    /**
+     * Due notifications, oldest first, locked for the calling transaction.
+     * Rows another instance is claiming right now are skipped, not waited
+     * for (lock timeout -2 is Hibernate's SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select n from OutboxNotification n where n.status = :status and n.nextAttemptAt <= :now order by n.id")
+    List<OutboxNotification> findDue(NotificationStatus status, Instant now, Pageable page);
+
+    long countByStatus(NotificationStatus status);
+}
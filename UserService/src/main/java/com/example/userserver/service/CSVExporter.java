@@ -4,6 +4,8 @@ import com.example.userserver.domain.User;
 import com.example.userserver.domain.UserType;
 import com.example.userserver.repository.UserRepository;
 import com.opencsv.CSVWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
@@ -14,9 +16,14 @@ import java.util.List;
 public class CSVExporter {
 
     private final UserRepository userRepository;
+    private final Counter rows;
+    private final Counter bytes;
 
-    public CSVExporter(UserRepository userRepository) {
+    public CSVExporter(UserRepository userRepository, MeterRegistry meters) {
         this.userRepository = userRepository;
+        // same meters as the species exports in animal-service, told apart by the application tag
+        this.rows = Counter.builder("zoo.export.rows").tag("format", "csv").register(meters);
+        this.bytes = Counter.builder("zoo.export.bytes").baseUnit("bytes").tag("format", "csv").register(meters);
     }
 
     /**
@@ -45,6 +52,8 @@ public class CSVExporter {
                 });
             }
             writer.flush();
+            rows.increment(users.size());
+            bytes.increment(baos.size());
             return baos.toByteArray();
 
         } catch (Exception e) {
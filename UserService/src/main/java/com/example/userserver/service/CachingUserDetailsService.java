@@ -0,0 +1,139 @@
+package com.example.userserver.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link UserDetailsServiceImpl} behind a bounded cache, so an authenticated
+ * request does not cost a {@code findByUsername}. An entry lives at most
+ * {@code user.details.cache.ttl-ms}; {@link UserService} evicts a user as
+ * soon as an update, delete or password change is committed, and a load that
+ * overlapped an eviction is returned but not kept, since it may have read
+ * the row before the change. Unknown usernames are not cached.
+ * <p>
+ * Every call gets a fresh {@link UserDetails}: once a login succeeds,
+ * Spring Security erases the principal's password, and that must not
+ * happen to the cached copy. Hits and misses are counted as
+ * {@code cache.gets{cache="userDetails"}}.
+ */
+@Primary
+@Service
+public class CachingUserDetailsService implements UserDetailsService {
+
+    private static final String CACHE = "userDetails";
+
+    /** {@code username} as stored, whatever case or accents the lookup used */
+    private record Entry(String username, String password,
+                         Collection<? extends GrantedAuthority> authorities, long expiresAt) {
+    }
+
+    private final UserDetailsServiceImpl delegate;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /** Bumped by every eviction; a load that started under another value may be stale */
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public CachingUserDetailsService(UserDetailsServiceImpl delegate,
+                                     MeterRegistry meters,
+                                     @Value("${user.details.cache.ttl-ms:300000}") long ttlMillis,
+                                     @Value("${user.details.cache.max-entries:10000}") int maxEntries) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("cache.gets").tag("cache", CACHE).tag("result", "hit")
+                .description("UserDetails lookups answered from the cache").register(meters);
+        this.misses = Counter.builder("cache.gets").tag("cache", CACHE).tag("result", "miss")
+                .description("UserDetails lookups that went to the database").register(meters);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", CACHE)
+                .description("Users dropped from the cache because they changed").register(meters);
+        Gauge.builder("cache.size", entries, Map::size).tag("cache", CACHE).register(meters);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(username);
+        if (cached != null && now < cached.expiresAt()) {
+            hits.increment();
+            return toUserDetails(cached);
+        }
+        misses.increment();
+
+        long seen = generation.get();
+        UserDetails loaded = delegate.loadUserByUsername(username);
+        Entry entry = new Entry(loaded.getUsername(), loaded.getPassword(),
+                List.copyOf(loaded.getAuthorities()), now + ttlMillis);
+        if (maxEntries > 0) {
+            if (entries.size() >= maxEntries) trim(now);
+            entries.put(username, entry);
+            // an eviction ran while we read: keep nothing that might predate it
+            if (generation.get() != seen) entries.remove(username, entry);
+        }
+        return toUserDetails(entry);
+    }
+
+    /**
+     * Drops {@code username} under every spelling it was looked up with.
+     * Inside a transaction this happens after commit: before it, a lookup
+     * would still read the old row.
+     */
+    public void evict(String username) {
+        if (username == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(username);
+                }
+            });
+        } else {
+            remove(username);
+        }
+    }
+
+    private void remove(String username) {
+        generation.incrementAndGet();
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().username().equals(username)) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /** Expired entries first; if still full, an eighth of the rest, so this runs once per many misses. */
+    private void trim(long now) {
+        entries.values().removeIf(e -> e.expiresAt() <= now);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() > maxEntries - maxEntries / 8 - 1 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static UserDetails toUserDetails(Entry e) {
+        return new org.springframework.security.core.userdetails.User(e.username(), e.password(), e.authorities());
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.userserver.service;
+
+import com.example.userserver.domain.NotificationStatus;
+import com.example.userserver.domain.OutboxNotification;
+import com.example.userserver.repository.OutboxNotificationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the notification outbox. Each round claims a batch of due rows
+ * (skipping rows another instance holds), leases them by pushing their
+ * next attempt past the lease time, sends them on a fixed pool and then
+ * records the results in one transaction: sent rows are deleted, failed
+ * ones retried with exponential backoff and jitter, and after the last
+ * attempt marked FAILED with their body and sealed secret wiped. The
+ * secret is opened into the body only in memory, just before the send.
+ * If an instance dies mid-batch its rows come due again when the lease
+ * runs out, so delivery is at least once.
+ * <p>
+ * Sends are timed as {@code zoo.notification.dispatch} by channel and
+ * kind, with outcome success, retry or failure; the backlog is the
+ * {@code zoo.notification.outbox} gauge.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final OutboxNotificationRepository outbox;
+    private final EmailService emailService;
+    private final SmsService smsService;
+    private final NotificationSecrets secrets;
+    private final MeterRegistry meters;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final long sendTimeoutMillis;
+    private final long leaseMillis;
+    private final ThreadPoolExecutor pool;
+
+    public NotificationDispatcher(OutboxNotificationRepository outbox,
+                                  EmailService emailService,
+                                  SmsService smsService,
+                                  NotificationSecrets secrets,
+                                  MeterRegistry meters,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${notification.dispatch.threads:4}") int threads,
+                                  @Value("${notification.dispatch.batch-size:50}") int batchSize,
+                                  @Value("${notification.dispatch.max-attempts:8}") int maxAttempts,
+                                  @Value("${notification.dispatch.backoff-ms:2000}") long backoffMillis,
+                                  @Value("${notification.dispatch.max-backoff-ms:600000}") long maxBackoffMillis,
+                                  @Value("${notification.dispatch.send-timeout-ms:30000}") long sendTimeoutMillis) {
+        this.outbox = outbox;
+        this.emailService = emailService;
+        this.smsService = smsService;
+        this.secrets = secrets;
+        this.meters = meters;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        // long enough for the slowest batch: every send in the pool's queue timing out in turn
+        this.leaseMillis = sendTimeoutMillis * (batchSize / threads + 2);
+
+        AtomicInteger counter = new AtomicInteger();
+        // a batch is all that is ever queued, so the queue never fills
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize), r -> {
+            Thread t = new Thread(r, "notification-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        for (NotificationStatus status : NotificationStatus.values()) {
+            Gauge.builder("zoo.notification.outbox", () -> outbox.countByStatus(status))
+                    .description("Notifications in the outbox")
+                    .tag("status", status.name().toLowerCase())
+                    .register(meters);
+        }
+    }
+
+    /** Keeps taking batches while they come back full, so a backlog drains in one round. */
+    @Scheduled(fixedDelayString = "${notification.dispatch.interval-ms:1000}")
+    public void poll() {
+        try {
+            while (dispatchDue() == batchSize) {
+                // next batch
+            }
+        } catch (RuntimeException e) {
+            log.warn("Notification dispatch round failed", e);
+        }
+    }
+
+    /**
+     * Claims, sends and records one batch of due notifications.
+     *
+     * @return how many were claimed
+     */
+    public int dispatchDue() {
+        Instant now = Instant.now();
+        List<OutboxNotification> batch = tx.execute(status -> {
+            List<OutboxNotification> due = outbox.findDue(NotificationStatus.PENDING, now, PageRequest.of(0, batchSize));
+            Instant lease = now.plusMillis(leaseMillis);
+            due.forEach(n -> n.setNextAttemptAt(lease));
+            return due;
+        });
+        if (batch == null || batch.isEmpty()) return 0;
+
+        List<Future<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxNotification n : batch) {
+            sends.add(pool.submit(() -> send(n)));
+        }
+        List<Throwable> failures = new ArrayList<>(batch.size());
+        for (Future<?> f : sends) {
+            failures.add(await(f));
+        }
+
+        Instant done = Instant.now();
+        tx.executeWithoutResult(status -> {
+            List<Long> sent = new ArrayList<>();
+            List<OutboxNotification> failed = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                OutboxNotification n = batch.get(i);
+                Throwable failure = failures.get(i);
+                if (failure == null) {
+                    sent.add(n.getId());
+                } else {
+                    recordFailure(n, failure, done);
+                    failed.add(n);
+                }
+            }
+            if (!sent.isEmpty()) outbox.deleteAllByIdInBatch(sent);
+            if (!failed.isEmpty()) outbox.saveAll(failed);
+        });
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void send(OutboxNotification n) {
+        Timer.Sample sample = Timer.start(meters);
+        RuntimeException failure = null;
+        try {
+            String body = n.getSecret() == null ? n.getBody()
+                    : n.getBody().replace(NotificationService.SECRET, secrets.open(n.getSecret()));
+            switch (n.getChannel()) {
+                case EMAIL -> emailService.sendUserUpdateEmail(n.getRecipient(), n.getSubject(), body);
+                case SMS -> smsService.sendSms(n.getRecipient(), body);
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            String outcome = failure == null ? "success" : n.getAttempts() + 1 < maxAttempts ? "retry" : "failure";
+            sample.stop(Timer.builder("zoo.notification.dispatch")
+                    .description("Time to hand one notification to its channel")
+                    .tag("channel", n.getChannel().name().toLowerCase())
+                    .tag("notification", n.getKind())
+                    .tag("outcome", outcome)
+                    .tag("exception", failure == null ? "none" : failure.getClass().getSimpleName())
+                    .register(meters));
+        }
+    }
+
+    /** The send's exception, or null once it went through. */
+    private Throwable await(Future<?> send) {
+        try {
+            send.get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            send.cancel(true);
+            return e;
+        } catch (InterruptedException e) {
+            send.cancel(true);
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+
+    private void recordFailure(OutboxNotification n, Throwable failure, Instant now) {
+        int attempts = n.getAttempts() + 1;
+        n.setAttempts(attempts);
+        String error = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+        n.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (attempts >= maxAttempts) {
+            log.warn("Giving up on {} notification {} after {} attempts: {}", n.getChannel(), n.getId(), attempts, error);
+            n.setStatus(NotificationStatus.FAILED);
+            n.setBody(null);
+            n.setSecret(null);
+            n.setNextAttemptAt(now);
+        } else {
+            n.setNextAttemptAt(now.plusMillis(backoff(attempts)));
+        }
+    }
+
+    /** Doubles per attempt up to the cap; the upper half is random so retries of one outage spread out. */
+    private long backoff(int attempts) {
+        long delay = Math.min(maxBackoffMillis, backoffMillis << Math.min(attempts - 1, 30));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.userserver.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Seals the credentials a notification carries, so the outbox only ever
+ * holds them encrypted (AES-GCM). The key is {@code notification.outbox.secret-key},
+ * base64 of 16, 24 or 32 bytes. Without one a random key is made per
+ * process: pending credentials then become unreadable on restart and those
+ * notifications fail instead of going out.
+ */
+@Component
+public class NotificationSecrets {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationSecrets.class);
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKeySpec key;
+
+    public NotificationSecrets(@Value("${notification.outbox.secret-key:}") String secretKey) {
+        byte[] raw;
+        if (secretKey.isBlank()) {
+            log.warn("notification.outbox.secret-key is not set; using a per-process key");
+            raw = new byte[32];
+            random.nextBytes(raw);
+        } else {
+            raw = Base64.getDecoder().decode(secretKey.strip());
+        }
+        this.key = new SecretKeySpec(raw, "AES");
+        // fail at startup rather than on the first notification
+        open(seal("check"));
+    }
+
+    /** Base64 of the IV followed by the ciphertext */
+    public String seal(String plain) {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] sealed = cipher.doFinal(plain.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(IV_BYTES + sealed.length)
+                    .put(iv).put(sealed).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot seal notification secret", e);
+        }
+    }
+
+    public String open(String sealed) {
+        byte[] bytes = Base64.getDecoder().decode(sealed);
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, bytes, 0, IV_BYTES));
+            return new String(cipher.doFinal(bytes, IV_BYTES, bytes.length - IV_BYTES), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot open notification secret (was the key changed?)", e);
+        }
+    }
+}
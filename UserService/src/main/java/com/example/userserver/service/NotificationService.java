@@ -1,15 +1,35 @@
 package com.example.userserver.service;
 
+import com.example.userserver.domain.NotificationChannel;
+import com.example.userserver.domain.NotificationStatus;
+import com.example.userserver.domain.OutboxNotification;
 import com.example.userserver.domain.User;
+import com.example.userserver.repository.OutboxNotificationRepository;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+
+/**
+ * Writes user notifications to the outbox; {@link NotificationDispatcher}
+ * sends them. Callers must be in a transaction, so a notification exists
+ * exactly when the change it announces was committed.
+ * <p>
+ * A password never goes into the body: the body holds {@link #SECRET} in
+ * its place and the password is stored sealed by {@link NotificationSecrets}
+ * next to it, to be put back only when the message is sent.
+ */
 @Service
 @RequiredArgsConstructor
+@Transactional(Transactional.TxType.MANDATORY)
 public class NotificationService {
 
-    private final EmailService emailService;
-    private final SmsService smsService;
+    /** Stands in the body for the sealed secret */
+    public static final String SECRET = "{{secret}}";
+
+    private final OutboxNotificationRepository outbox;
+    private final NotificationSecrets secrets;
 
     /**
      * Notify a newly created user of their credentials (email & SMS).
@@ -22,14 +42,12 @@ public class NotificationService {
                         "Username: %s%n" +
                         "Password: %s%n%n" +
                         "Please change your password on first login.%n",
-                user.getUsername(), user.getUsername(), rawPassword
+                user.getUsername(), user.getUsername(), SECRET
         );
 
-        emailService.sendUserUpdateEmail(user.getEmail(), subject, body);
-        smsService.sendSms(
-                user.getPhone(),
-                String.format("Hi %s, your ZooApp account is ready. Check email for details.", user.getUsername())
-        );
+        enqueue(NotificationChannel.EMAIL, "new_user", user.getEmail(), subject, body, rawPassword);
+        enqueue(NotificationChannel.SMS, "new_user", user.getPhone(), null,
+                String.format("Hi %s, your ZooApp account is ready. Check email for details.", user.getUsername()), null);
     }
 
     /**
@@ -43,15 +61,31 @@ public class NotificationService {
                 .append("Your account details have been updated.\n");
 
         if (passwordChanged) {
-            body.append("New Password: ").append(rawPassword).append("\n");
+            body.append("New Password: ").append(SECRET).append("\n");
         }
 
         body.append("\nIf you did not request this change, please contact support.");
 
-        emailService.sendUserUpdateEmail(user.getEmail(), subject, body.toString());
-        smsService.sendSms(
-                user.getPhone(),
-                "Your ZooApp account was updated. Check your email for details."
-        );
+        enqueue(NotificationChannel.EMAIL, "update", user.getEmail(), subject, body.toString(),
+                passwordChanged ? rawPassword : null);
+        enqueue(NotificationChannel.SMS, "update", user.getPhone(), null,
+                "Your ZooApp account was updated. Check your email for details.", null);
+    }
+
+    private void enqueue(NotificationChannel channel, String kind, String recipient,
+                         String subject, String body, String secret) {
+        if (recipient == null || recipient.isBlank()) return; // e.g. no phone number: nothing to send to
+        Instant now = Instant.now();
+        outbox.save(OutboxNotification.builder()
+                .channel(channel)
+                .kind(kind)
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .secret(secret == null ? null : secrets.seal(secret))
+                .status(NotificationStatus.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
     }
 }
@@ -21,6 +21,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final NotificationService notificationService;
+    private final CachingUserDetailsService userDetailsCache;
 
     /*** READ ***/
 //    public List<UserDTO> getAll() {
@@ -54,6 +55,8 @@ public class UserService {
     }
 
     /*** CREATE ***/
+    // the user and its notifications commit together; sending happens later, off the request
+    @Transactional
     public UserDTO create(UserDTO dto) {
         User u = UserDTO.toEntity(dto);
         String raw = dto.getPassword();
@@ -69,9 +72,11 @@ public class UserService {
     }
 
     /*** UPDATE ***/
+    @Transactional
     public UserDTO update(Long id, UserDTO dto) {
         User existing = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found: " + id));
+        String previousUsername = existing.getUsername();
 
         existing.setUsername(dto.getUsername());
         existing.setEmail(dto.getEmail());
@@ -88,23 +93,29 @@ public class UserService {
         }
 
         User saved = userRepository.save(existing);
+        // takes effect on commit, so a concurrent login cannot cache the old row again
+        userDetailsCache.evict(previousUsername);
+        userDetailsCache.evict(saved.getUsername());
         return UserDTO.fromEntity(saved);
     }
 
     /*** DELETE ***/
+    @Transactional
     public void delete(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found: " + id);
-        }
+        User u = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found: " + id));
         userRepository.deleteById(id);
+        userDetailsCache.evict(u.getUsername());
     }
 
     /*** CHANGE PASSWORD ***/
+    @Transactional
     public void changePassword(Long id, String newPassword) {
         User u = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found: " + id));
         u.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(u);
+        userDetailsCache.evict(u.getUsername());
         notificationService.notifyOnUpdate(u, true, newPassword);
     }
 
@@ -0,0 +1,166 @@
+package com.example.userserver.service;
+
+import com.example.userserver.domain.User;
+import com.example.userserver.domain.UserType;
+import com.example.userserver.domain.dto.UserDTO;
+import com.example.userserver.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * The cache over a users table kept in a map, looked up case-insensitively
+ * like MySQL's default collation, with {@link UserService} writing to it.
+ */
+class CachingUserDetailsServiceTest {
+
+    private final Map<Long, User> table = new HashMap<>();
+    private final UserRepository repository = mock(UserRepository.class);
+    private CachingUserDetailsService cache;
+    private UserService users;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findByUsername(anyString())).thenAnswer(inv -> table.values().stream()
+                .filter(u -> u.getUsername().equalsIgnoreCase(inv.getArgument(0)))
+                .findFirst());
+        when(repository.findById(any())).thenAnswer(inv -> Optional.ofNullable(table.get(inv.<Long>getArgument(0))));
+        when(repository.save(any())).thenAnswer(inv -> {
+            User u = inv.getArgument(0);
+            table.put(u.getId(), u);
+            return u;
+        });
+        doAnswer(inv -> table.remove(inv.<Long>getArgument(0))).when(repository).deleteById(any());
+
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(any())).thenAnswer(inv -> "{hashed}" + inv.getArgument(0));
+
+        cache = spy(new CachingUserDetailsService(new UserDetailsServiceImpl(repository),
+                new SimpleMeterRegistry(), 60_000, 100));
+        users = new UserService(repository, encoder, mock(NotificationService.class), cache);
+
+        table.put(1L, User.builder().id(1L).username("ana").password("{hashed}old")
+                .email("ana@zoo.test").userType(UserType.VISITOR).build());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void aHitSkipsTheDatabaseAndHandsOutAFreshCopy() {
+        UserDetails first = cache.loadUserByUsername("ana");
+        ((CredentialsContainer) first).eraseCredentials();
+
+        UserDetails second = cache.loadUserByUsername("ana");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPassword()).isEqualTo("{hashed}old");
+        verify(repository, times(1)).findByUsername("ana");
+    }
+
+    @Test
+    void unknownUsernamesAreNotCached() {
+        assertThatThrownBy(() -> cache.loadUserByUsername("nobody")).isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> cache.loadUserByUsername("nobody")).isInstanceOf(UsernameNotFoundException.class);
+
+        verify(repository, times(2)).findByUsername("nobody");
+    }
+
+    @Test
+    void updateEvictsTheOldAndTheNewUsername() {
+        cache.loadUserByUsername("ana");
+
+        users.update(1L, UserDTO.builder().username("anna").email("ana@zoo.test")
+                .userType(UserType.EMPLOYEE).build());
+
+        verify(cache).evict("ana");
+        verify(cache).evict("anna");
+        assertThatThrownBy(() -> cache.loadUserByUsername("ana")).isInstanceOf(UsernameNotFoundException.class);
+        assertThat(cache.loadUserByUsername("anna").getAuthorities())
+                .extracting(Object::toString).containsExactly("ROLE_EMPLOYEE");
+    }
+
+    @Test
+    void deleteEvicts() {
+        cache.loadUserByUsername("ana");
+
+        users.delete(1L);
+
+        verify(cache).evict("ana");
+        assertThatThrownBy(() -> cache.loadUserByUsername("ana")).isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void changePasswordEvicts() {
+        cache.loadUserByUsername("ana");
+
+        users.changePassword(1L, "new");
+
+        verify(cache).evict("ana");
+        assertThat(cache.loadUserByUsername("ana").getPassword()).isEqualTo("{hashed}new");
+    }
+
+    @Test
+    void everySpellingOfTheUsernameIsEvicted() {
+        cache.loadUserByUsername("ana");
+        cache.loadUserByUsername("ANA");
+
+        cache.evict("ana");
+        cache.loadUserByUsername("ana");
+        cache.loadUserByUsername("ANA");
+
+        verify(repository, times(2)).findByUsername("ana");
+        verify(repository, times(2)).findByUsername("ANA");
+    }
+
+    @Test
+    void insideATransactionTheEvictionWaitsForTheCommit() {
+        cache.loadUserByUsername("ana");
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict("ana");
+        cache.loadUserByUsername("ana");
+        verify(repository, times(1)).findByUsername("ana");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.loadUserByUsername("ana");
+        verify(repository, times(2)).findByUsername("ana");
+    }
+
+    @Test
+    void aLoadThatOverlapsAnEvictionIsReturnedButNotKept() {
+        // the change commits, and evicts, while the row is being read
+        when(repository.findByUsername("ana")).thenAnswer(inv -> {
+            Optional<User> row = Optional.of(table.get(1L));
+            cache.evict("ana");
+            return row;
+        }).thenAnswer(inv -> Optional.of(table.get(1L)));
+
+        assertThat(cache.loadUserByUsername("ana").getUsername()).isEqualTo("ana");
+        cache.loadUserByUsername("ana");
+        cache.loadUserByUsername("ana");
+
+        verify(repository, times(2)).findByUsername("ana");
+    }
+}
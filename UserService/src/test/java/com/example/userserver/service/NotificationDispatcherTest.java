@@ -0,0 +1,177 @@
+package com.example.userserver.service;
+
+import com.example.userserver.domain.NotificationChannel;
+import com.example.userserver.domain.NotificationStatus;
+import com.example.userserver.domain.OutboxNotification;
+import com.example.userserver.domain.UserType;
+import com.example.userserver.domain.dto.UserDTO;
+import com.example.userserver.repository.OutboxNotificationRepository;
+import com.example.userserver.repository.UserRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "jwt.secret=notification-test-secret-notification-test-secret",
+        "jwt.expiration=3600000",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        // the test drives the dispatcher; the scheduler only runs once, at startup
+        "notification.dispatch.interval-ms=3600000",
+        "notification.dispatch.backoff-ms=60000",
+        "notification.dispatch.max-attempts=2",
+        "notification.outbox.secret-key=AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8="})
+class NotificationDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private NotificationDispatcher dispatcher;
+    @Autowired
+    private OutboxNotificationRepository outbox;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void clean() {
+        outbox.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void userWriteOnlyQueuesTheNotificationsAndTheDispatcherDeliversThem() throws Exception {
+        userService.create(user("ana", "ana@zoo.test"));
+
+        assertThat(smtp.getReceivedMessages()).isEmpty();
+        assertThat(outbox.findAll()).extracting(OutboxNotification::getChannel)
+                .containsExactlyInAnyOrder(NotificationChannel.EMAIL, NotificationChannel.SMS);
+
+        assertThat(dispatcher.dispatchDue()).isEqualTo(2);
+
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getSubject()).isEqualTo("Welcome to ZooApp!");
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("ana@zoo.test");
+        assertThat(outbox.count()).isZero();
+    }
+
+    @Test
+    void failedSendIsRetriedAfterBackoff() {
+        smtp.stop();
+        userService.create(user("bob", "bob@zoo.test"));
+        Instant beforeDispatch = Instant.now();
+
+        assertThat(dispatcher.dispatchDue()).isEqualTo(2);
+
+        // the SMS went out, the email waits for its retry
+        List<OutboxNotification> left = outbox.findAll();
+        assertThat(left).hasSize(1);
+        OutboxNotification email = left.get(0);
+        assertThat(email.getStatus()).isEqualTo(NotificationStatus.PENDING);
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getLastError()).isNotBlank();
+        assertThat(email.getNextAttemptAt()).isAfter(beforeDispatch.plus(Duration.ofSeconds(29)));
+        assertThat(dispatcher.dispatchDue()).isZero();
+
+        smtp.start();
+        email.setNextAttemptAt(Instant.now());
+        outbox.save(email);
+
+        assertThat(dispatcher.dispatchDue()).isEqualTo(1);
+        assertThat(smtp.getReceivedMessages()).hasSize(1);
+        assertThat(outbox.count()).isZero();
+    }
+
+    @Test
+    void passwordsNeverReachTheOutboxButDoReachTheMail() throws Exception {
+        UserDTO created = userService.create(user("dora", "dora@zoo.test", "Created-pw-1"));
+        userService.update(created.getId(), user("dora", "dora@zoo.test", "Updated-pw-2"));
+        userService.changePassword(created.getId(), "Changed-pw-3");
+
+        List<Map<String, Object>> rows = jdbc.queryForList("select * from notification_outbox");
+        assertThat(rows).hasSize(6);
+        for (Map<String, Object> row : rows) {
+            for (Object value : row.values()) {
+                assertThat(String.valueOf(value)).doesNotContain("Created-pw-1", "Updated-pw-2", "Changed-pw-3");
+            }
+        }
+
+        assertThat(dispatcher.dispatchDue()).isEqualTo(6);
+        assertThat(Arrays.stream(smtp.getReceivedMessages()).map(GreenMailUtil::getBody))
+                .anySatisfy(body -> assertThat(body).contains("Created-pw-1"))
+                .anySatisfy(body -> assertThat(body).contains("Updated-pw-2"))
+                .anySatisfy(body -> assertThat(body).contains("Changed-pw-3"))
+                .noneSatisfy(body -> assertThat(body).contains(NotificationService.SECRET));
+    }
+
+    @Test
+    void givingUpWipesTheBodyAndTheSealedPassword() {
+        smtp.stop();
+        userService.create(user("eli", "eli@zoo.test"));
+        OutboxNotification email = outbox.findAll().stream()
+                .filter(n -> n.getChannel() == NotificationChannel.EMAIL).findFirst().orElseThrow();
+        assertThat(email.getSecret()).isNotNull();
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            email = outbox.findById(email.getId()).orElseThrow();
+            email.setNextAttemptAt(Instant.now());
+            outbox.save(email);
+            dispatcher.dispatchDue();
+        }
+
+        OutboxNotification failed = outbox.findById(email.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(NotificationStatus.FAILED);
+        assertThat(failed.getBody()).isNull();
+        assertThat(failed.getSecret()).isNull();
+        smtp.start();
+    }
+
+    @Test
+    void rolledBackWriteLeavesNoNotification() {
+        userService.create(user("cleo", "cleo@zoo.test"));
+        long queued = outbox.count();
+
+        assertThatThrownBy(() -> userService.create(user("cleo", "other@zoo.test")));
+
+        assertThat(outbox.count()).isEqualTo(queued);
+    }
+
+    private static UserDTO user(String username, String email) {
+        return user(username, email, "secret");
+    }
+
+    private static UserDTO user(String username, String email, String password) {
+        return UserDTO.builder()
+                .username(username)
+                .email(email)
+                .phone("0700000000")
+                .password(password)
+                .userType(UserType.VISITOR)
+                .build();
+    }
+}